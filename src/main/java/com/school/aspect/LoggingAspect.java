@@ -1,25 +1,63 @@
 package com.school.aspect;
 
-import java.util.Arrays;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 /**
- * AOP aspect for logging controller method execution.
+ * AOP aspect for logging and timing controller method execution.
  * <p>
- * Automatically logs entry, exit (with execution time and HTTP status), and failures
- * for all methods in {@code com.school.controller} without modifying controller code.
+ * Every call to a method in {@code com.school.controller} is recorded in the {@value #TIMER_NAME}
+ * timer, tagged by controller class, method, HTTP status and exception, with a percentile
+ * histogram so p99 can be computed across instances.
+ * <p>
+ * Logging is sampled to keep it off the fast path: failed calls and calls slower than
+ * {@code school.request-logging.slow-threshold} are always logged, other calls only at the
+ * endpoint's sample rate. Arguments are passed to the logger unformatted, so they are only
+ * rendered for events that are actually written.
  */
 @Aspect
 @Component
 @Slf4j
+@EnableConfigurationProperties(RequestLoggingProperties.class)
 public class LoggingAspect {
 
+    static final String TIMER_NAME = "controller.requests";
+
+    private static final int UNKNOWN_STATUS = 0;
+    private static final String UNKNOWN_TAG = "UNKNOWN";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final RequestLoggingProperties properties;
+    private final long slowThresholdNanos;
+    private final Map<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the aspect.
+     *
+     * @param meterRegistry the registry controller timings are recorded in
+     * @param properties    the sampling configuration
+     */
+    public LoggingAspect(MeterRegistry meterRegistry, RequestLoggingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+    }
+
     /**
      * Pointcut matching all methods in controller classes.
      */
@@ -28,7 +66,7 @@ public class LoggingAspect {
     }
 
     /**
-     * Around advice that logs method entry, exit with timing, and exceptions.
+     * Around advice that times the call and logs it if it failed, was slow or is sampled.
      *
      * @param joinPoint the join point representing the intercepted method
      * @return the method's return value
@@ -36,30 +74,101 @@ public class LoggingAspect {
      */
     @Around("controllerMethods()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        String args = Arrays.toString(joinPoint.getArgs());
-
-        log.info("Started {}.{} with args: {}", className, methodName, args);
+        Endpoint endpoint = endpoints.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), this::endpoint);
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            long elapsed = System.currentTimeMillis() - start;
+            long elapsedNanos = System.nanoTime() - start;
+            int status = result instanceof ResponseEntity<?> response
+                    ? response.getStatusCode().value()
+                    : UNKNOWN_STATUS;
+            completedTimer(endpoint, status).record(elapsedNanos, TimeUnit.NANOSECONDS);
 
-            if (result instanceof ResponseEntity<?> response) {
-                log.info("Finished {}.{} in {} ms with result: {}",
-                        className, methodName, elapsed, response.getStatusCode());
-            } else {
-                log.info("Finished {}.{} in {} ms", className, methodName, elapsed);
+            if (elapsedNanos >= slowThresholdNanos) {
+                log.warn("Slow {} in {} ms with status {}, args: {}",
+                        endpoint.name(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statusTag(status),
+                        joinPoint.getArgs());
+            } else if (log.isInfoEnabled() && endpoint.sampled()) {
+                log.info("Finished {} in {} ms with status {}, args: {}",
+                        endpoint.name(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statusTag(status),
+                        joinPoint.getArgs());
             }
 
             return result;
         } catch (Throwable ex) {
-            long elapsed = System.currentTimeMillis() - start;
-            log.error("Failed {}.{} in {} ms with exception: {}",
-                    className, methodName, elapsed, ex.getMessage());
+            long elapsedNanos = System.nanoTime() - start;
+            failedTimer(endpoint, ex.getClass()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+            log.error("Failed {} in {} ms with exception: {}, args: {}",
+                    endpoint.name(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ex.toString(), joinPoint.getArgs());
             throw ex;
         }
     }
+
+    private Endpoint endpoint(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        String name = className + "." + method.getName();
+        return new Endpoint(className, method.getName(), name, properties.sampleRateOf(name),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    /** Looks up the timer of a completed call; the timer is only built the first time a status is seen. */
+    private Timer completedTimer(Endpoint endpoint, int status) {
+        Timer timer = endpoint.timers().get(status);
+        if (timer == null) {
+            timer = endpoint.timers().computeIfAbsent(status, key -> timer(endpoint, statusTag(key), NO_EXCEPTION));
+        }
+        return timer;
+    }
+
+    /** Looks up the timer of a failed call; the timer is only built the first time an exception type is seen. */
+    private Timer failedTimer(Endpoint endpoint, Class<?> exceptionType) {
+        Timer timer = endpoint.failureTimers().get(exceptionType);
+        if (timer == null) {
+            timer = endpoint.failureTimers().computeIfAbsent(exceptionType,
+                    type -> timer(endpoint, UNKNOWN_TAG, type.getSimpleName()));
+        }
+        return timer;
+    }
+
+    private static String statusTag(int status) {
+        return status == UNKNOWN_STATUS ? UNKNOWN_TAG : String.valueOf(status);
+    }
+
+    /**
+     * Registers the {@value #TIMER_NAME} timer of one endpoint, status and exception. Called once
+     * per combination; later calls find the timer in the endpoint's maps.
+     * <p>
+     * The status of a failed call is {@code UNKNOWN} here because {@code GlobalExceptionHandler}
+     * picks it later; the {@code exception} tag identifies the failure instead.
+     */
+    private Timer timer(Endpoint endpoint, String status, String exception) {
+        return Timer.builder(TIMER_NAME)
+                .description("Controller method execution time")
+                .tag("class", endpoint.className())
+                .tag("method", endpoint.methodName())
+                .tag("status", status)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * A controller method and its resolved logging settings.
+     *
+     * @param className     the controller's simple class name
+     * @param methodName    the method name
+     * @param name          {@code className.methodName}, as used in log lines and sample rate keys
+     * @param sampleRate    the fraction of fast, successful calls that are logged
+     * @param timers        the timers of completed calls, by HTTP status
+     * @param failureTimers the timers of failed calls, by exception class
+     */
+    private record Endpoint(String className, String methodName, String name, double sampleRate,
+                            Map<Integer, Timer> timers, Map<Class<?>, Timer> failureTimers) {
+
+        boolean sampled() {
+            return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+    }
 }
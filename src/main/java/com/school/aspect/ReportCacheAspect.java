@@ -0,0 +1,99 @@
+package com.school.aspect;
+
+import com.school.cache.ModifiesTables;
+import com.school.cache.ReportCache;
+import com.school.cache.ReportCacheable;
+import com.school.cache.TableVersions;
+import com.school.cache.TrackedTable;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AOP aspect serving {@link ReportCacheable} methods from the report cache and invalidating it
+ * from {@link ModifiesTables} methods.
+ * <p>
+ * The aspect runs outside the transactional proxy, so a write's transaction has committed by the
+ * time it returns. Versions are bumped both before the write and after it completes: a report
+ * that starts before the commit is tagged with versions the second bump retires, and a report
+ * that starts after the commit no longer matches anything cached before the write.
+ */
+@Aspect
+@Component
+// Just outside the transaction advisor, which runs at the lowest precedence
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ReportCacheAspect {
+
+    private final ReportCache reportCache;
+    private final TableVersions tableVersions;
+
+    /**
+     * Constructs the aspect with the cache and the version counters it is tagged with.
+     *
+     * @param reportCache   the report cache
+     * @param tableVersions the table version counters
+     */
+    public ReportCacheAspect(ReportCache reportCache, TableVersions tableVersions) {
+        this.reportCache = reportCache;
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Around advice that returns a cached report result while its tables are unchanged.
+     * Calls made inside a caller's transaction bypass the cache, since they may need to
+     * see that transaction's uncommitted writes.
+     *
+     * @param joinPoint       the join point representing the report method
+     * @param reportCacheable the annotation listing the tables the report reads
+     * @return the report result
+     * @throws Throwable if the report method throws an exception
+     */
+    @Around("@annotation(reportCacheable)")
+    public Object cacheReport(ProceedingJoinPoint joinPoint, ReportCacheable reportCacheable) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        var signature = (MethodSignature) joinPoint.getSignature();
+        return reportCache.get(signature.getMethod(), joinPoint.getArgs(), reportCacheable.value(),
+                joinPoint::proceed);
+    }
+
+    /**
+     * Around advice that bumps the versions of the modified tables before and after the write.
+     *
+     * @param joinPoint      the join point representing the write method
+     * @param modifiesTables the annotation listing the tables written to
+     * @return the method's return value
+     * @throws Throwable if the write method throws an exception
+     */
+    @Around("@annotation(modifiesTables)")
+    public Object invalidateReports(ProceedingJoinPoint joinPoint, ModifiesTables modifiesTables) throws Throwable {
+        TrackedTable[] tables = modifiesTables.value();
+        tableVersions.bump(tables);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bumpOnCompletion(tables);
+        }
+    }
+
+    /** Bumps now, or once the caller's enclosing transaction has completed. */
+    private void bumpOnCompletion(TrackedTable[] tables) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tableVersions.bump(tables);
+                }
+            });
+        } else {
+            tableVersions.bump(tables);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.school.aspect;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the controller request log written by {@link LoggingAspect}.
+ *
+ * @param sampleRate          the fraction of successful, fast requests that are logged (0 to 1)
+ * @param slowThreshold       requests taking at least this long are always logged
+ * @param endpointSampleRates sample rates overriding {@code sampleRate}, keyed by
+ *                            {@code ControllerClass.method}
+ */
+@ConfigurationProperties("school.request-logging")
+public record RequestLoggingProperties(
+        @DefaultValue("0.01") double sampleRate,
+        @DefaultValue("500ms") Duration slowThreshold,
+        Map<String, Double> endpointSampleRates) {
+
+    public RequestLoggingProperties {
+        endpointSampleRates = endpointSampleRates == null ? Map.of() : Map.copyOf(endpointSampleRates);
+    }
+
+    /**
+     * Returns the sample rate for an endpoint.
+     *
+     * @param endpoint the endpoint, as {@code ControllerClass.method}
+     * @return the endpoint's override, or the default sample rate
+     */
+    public double sampleRateOf(String endpoint) {
+        return endpointSampleRates.getOrDefault(endpoint, sampleRate);
+    }
+}
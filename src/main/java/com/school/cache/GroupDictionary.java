@@ -0,0 +1,113 @@
+package com.school.cache;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, two-way map between member group names and their {@code member_groups} keys.
+ * <p>
+ * Entries are only ever added, and only from rows read back from the database, so a cached
+ * entry is never ahead of what other instances can see. Group rows are never deleted: a group
+ * keeps its key after its last member is gone. Lookups go through JDBC rather than the
+ * persistence context because they run inside Hibernate's flushes and parameter binding.
+ */
+@Component
+public class GroupDictionary {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the dictionary.
+     *
+     * @param jdbcTemplate       the template for reading and inserting group rows
+     * @param transactionManager the manager for the separate transaction that inserts new groups
+     */
+    public GroupDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the key of a group.
+     *
+     * @param name the group name
+     * @return the key, or {@code null} if no such group has been registered
+     */
+    public Integer idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            List<Integer> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM member_groups WHERE name = ?", Integer.class, name);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            id = ids.get(0);
+            put(id, name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the name of a group.
+     *
+     * @param id the group key
+     * @return the group name
+     * @throws IllegalStateException if there is no group with the key
+     */
+    public String nameOf(Integer id) {
+        String name = namesById.get(id);
+        if (name == null) {
+            List<String> names = jdbcTemplate.queryForList(
+                    "SELECT name FROM member_groups WHERE id = ?", String.class, id);
+            if (names.isEmpty()) {
+                throw new IllegalStateException(String.format("No member group with id: %d", id));
+            }
+            name = names.get(0);
+            put(id, name);
+        }
+        return name;
+    }
+
+    /**
+     * Returns the key of a group, adding the group first if it is new. A new group is committed
+     * in its own transaction, so it stays valid if the caller's transaction rolls back and is
+     * visible to concurrent writers of the same group straight away.
+     * <p>
+     * Call this before the caller's transaction starts, as {@code MemberController} does. Inside a
+     * transaction, inserting a new group takes a second pooled connection while the first is held,
+     * and a full pool of such requests would wait on each other until the connection timeout.
+     *
+     * @param name the group name
+     * @return the key
+     */
+    public int register(String name) {
+        Integer id = idOf(name);
+        if (id != null) {
+            return id;
+        }
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update("INSERT INTO member_groups (name) VALUES (?)", name));
+        } catch (DuplicateKeyException ex) {
+            // Registered concurrently; the row read below is the one that won
+        }
+        return idOf(name);
+    }
+
+    private void put(Integer id, String name) {
+        idsByName.put(name, id);
+        namesById.put(id, name);
+    }
+}
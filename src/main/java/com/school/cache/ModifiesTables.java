@@ -0,0 +1,23 @@
+package com.school.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method that writes to the given tables, invalidating cached reports that read them.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ModifiesTables {
+
+    /**
+     * The tables the method writes to.
+     *
+     * @return the tables
+     */
+    TrackedTable[] value();
+}
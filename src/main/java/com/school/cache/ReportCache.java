@@ -0,0 +1,101 @@
+package com.school.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Size-bounded cache of report results, tagged with the table versions they were read under.
+ * <p>
+ * Eviction is Caffeine's W-TinyLFU. The version snapshot is taken before the report runs, so a
+ * write that commits while the report is running leaves the entry already outdated. Outdated
+ * entries are counted as misses and replaced in place.
+ */
+public class ReportCache {
+
+    private final TableVersions tableVersions;
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    private final Cache<Key, Entry> cache;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param maximumSize   the maximum number of cached results
+     * @param tableVersions the table version counters
+     */
+    public ReportCache(long maximumSize, TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats(() -> stats)
+                .build();
+    }
+
+    /**
+     * Returns the cached result of the call if it is still current, otherwise loads and caches it.
+     *
+     * @param method the report method
+     * @param args   the call arguments
+     * @param tables the tables the report reads from
+     * @param loader computes the result on a miss
+     * @return the report result
+     * @throws Throwable anything thrown by the loader; failures are not cached
+     */
+    public Object get(Method method, Object[] args, TrackedTable[] tables, Loader loader) throws Throwable {
+        var key = new Key(method, Arrays.asList(args.clone()));
+        long[] versions = tableVersions.snapshot(tables);
+        // Map views do not record statistics, so hits and misses are counted here against the versions
+        Entry cached = cache.asMap().get(key);
+        if (cached != null && Arrays.equals(cached.versions(), versions)) {
+            stats.recordHits(1);
+            return cached.value();
+        }
+        stats.recordMisses(1);
+        Object value = loader.load();
+        if (value != null) {
+            cache.asMap().merge(key, new Entry(versions, value), ReportCache::newer);
+        }
+        return value;
+    }
+
+    /**
+     * Exposes the underlying cache for metrics binding.
+     *
+     * @return the Caffeine cache
+     */
+    public Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    /** Keeps the entry read under the later versions when two loads of the same key race. */
+    private static Entry newer(Entry existing, Entry loaded) {
+        return Arrays.stream(loaded.versions()).sum() >= Arrays.stream(existing.versions()).sum()
+                ? loaded : existing;
+    }
+
+    /**
+     * Computes a report result on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Computes the result.
+         *
+         * @return the result
+         * @throws Throwable if the computation fails
+         */
+        Object load() throws Throwable;
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+
+    private record Entry(long[] versions, Object value) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.school.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the report result cache and publishes its hit, miss and eviction metrics
+ * under the {@code cache} tag {@value #CACHE_NAME}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReportCacheProperties.class)
+public class ReportCacheConfig {
+
+    static final String CACHE_NAME = "reports";
+
+    /**
+     * Creates the report cache and binds its statistics to the meter registry.
+     *
+     * @param properties    the cache configuration
+     * @param tableVersions the table version counters
+     * @param meterRegistry the meter registry
+     * @return the report cache
+     */
+    @Bean
+    public ReportCache reportCache(ReportCacheProperties properties, TableVersions tableVersions,
+                                   MeterRegistry meterRegistry) {
+        var reportCache = new ReportCache(properties.maximumSize(), tableVersions);
+        CaffeineCacheMetrics.monitor(meterRegistry, reportCache.nativeCache(), CACHE_NAME);
+        return reportCache;
+    }
+}
@@ -0,0 +1,13 @@
+package com.school.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the report result cache.
+ *
+ * @param maximumSize the maximum number of cached results
+ */
+@ConfigurationProperties("school.report-cache")
+public record ReportCacheProperties(@DefaultValue("10000") long maximumSize) {
+}
@@ -0,0 +1,26 @@
+package com.school.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the result of a read-only report method, keyed by method and arguments.
+ * <p>
+ * A cached result is served only while the versions of the tables it was read from are
+ * unchanged. Results are shared between callers and must not be modified.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReportCacheable {
+
+    /**
+     * The tables the report reads from.
+     *
+     * @return the tables
+     */
+    TrackedTable[] value();
+}
@@ -0,0 +1,42 @@
+package com.school.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monotonic per-table version counters.
+ * <p>
+ * Writers bump the counters of the tables they modify; cached report results remember the
+ * counters they were computed under and are discarded once any of them has moved on.
+ */
+@Component
+public class TableVersions {
+
+    private final AtomicLongArray versions = new AtomicLongArray(TrackedTable.values().length);
+
+    /**
+     * Reads the current versions of the given tables.
+     *
+     * @param tables the tables to read
+     * @return the versions, in the order of {@code tables}
+     */
+    public long[] snapshot(TrackedTable... tables) {
+        long[] snapshot = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            snapshot[i] = versions.get(tables[i].ordinal());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Advances the versions of the given tables.
+     *
+     * @param tables the modified tables
+     */
+    public void bump(TrackedTable... tables) {
+        for (TrackedTable table : tables) {
+            versions.incrementAndGet(table.ordinal());
+        }
+    }
+}
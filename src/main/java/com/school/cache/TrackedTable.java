@@ -0,0 +1,10 @@
+package com.school.cache;
+
+/**
+ * Tables whose version counters tag cached report results.
+ */
+public enum TrackedTable {
+    MEMBERS,
+    COURSES,
+    MEMBER_COURSES
+}
@@ -0,0 +1,28 @@
+package com.school.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@link io.micrometer.core.annotation.Timed @Timed} on Spring beans, which the services
+ * use to publish the {@value #SERVICE_TIMER} timer tagged by class and method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Name of the timer recorded for every public service method. */
+    public static final String SERVICE_TIMER = "service.calls";
+
+    /**
+     * Creates the aspect that times {@code @Timed} beans and methods.
+     *
+     * @param meterRegistry the meter registry
+     * @return the timed aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
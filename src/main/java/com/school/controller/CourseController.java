@@ -1,9 +1,19 @@
 package com.school.controller;
 
 import com.school.dto.CourseDto;
+import com.school.dto.CursorPageDto;
+import com.school.dto.MultiGetDto;
+import com.school.idempotency.IdempotentRequests;
 import com.school.service.CourseService;
+import com.school.web.ETags;
+import com.school.web.NdjsonStreamer;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,75 +21,168 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 /**
  * REST controller for managing courses.
  * <p>
- * Provides CRUD endpoints under {@code /courses}.
+ * Provides CRUD endpoints under {@code /courses}. A single course and the full listing carry an
+ * {@code ETag}; {@code If-None-Match} is answered with 304 before the course is mapped or
+ * serialized, and {@code If-Match} on update rejects writes based on a stale read with 412.
  */
 @RestController
 @RequestMapping("/courses")
 public class CourseController {
 
+    private static final int MAX_BULK_SIZE = 10_000;
+
     private final CourseService courseService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final IdempotentRequests idempotentRequests;
 
     /**
      * Constructs the controller with the required service.
      *
-     * @param courseService the course service
+     * @param courseService      the course service
+     * @param ndjsonStreamer     the writer for streamed listings
+     * @param idempotentRequests the handler of idempotency keys on create
      */
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, NdjsonStreamer ndjsonStreamer,
+                            IdempotentRequests idempotentRequests) {
         this.courseService = courseService;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.idempotentRequests = idempotentRequests;
     }
 
     /**
-     * Creates a new course.
+     * Creates a new course. A retry with the same {@code Idempotency-Key} gets the first response
+     * back instead of creating the course again.
      *
-     * @param courseDto the course data
+     * @param courseDto      the course data
+     * @param idempotencyKey the client's key for this create, if any
      * @return the created course with HTTP 201
      */
     @PostMapping
-    public ResponseEntity<CourseDto> createCourse(@Valid @RequestBody CourseDto courseDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(courseService.createCourse(courseDto));
+    public ResponseEntity<CourseDto> createCourse(
+            @Valid @RequestBody CourseDto courseDto,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false)
+            @Size(min = 1, max = IdempotentRequests.MAX_KEY_LENGTH) String idempotencyKey) {
+        return idempotentRequests.execute(idempotencyKey, "POST /courses", courseDto, CourseDto.class, () -> {
+            CourseDto created = courseService.createCourse(courseDto);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(created.getVersion())).body(created);
+        });
+    }
+
+    /**
+     * Creates courses in bulk, in a single transaction.
+     *
+     * @param courseDtos the courses to create
+     * @return the created courses, in request order, with HTTP 201
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<CourseDto>> createCourses(
+            @RequestBody @Size(min = 1, max = MAX_BULK_SIZE) List<@Valid CourseDto> courseDtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(courseService.createCourses(courseDtos));
     }
 
     /**
      * Retrieves a course by its ID.
      *
-     * @param id the course ID
-     * @return the course data
+     * @param id          the course ID
+     * @param ifNoneMatch the ETag of the copy the client holds, if any
+     * @return the course data, or HTTP 304 if the client's copy is current
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CourseDto> getCourseById(@PathVariable Long id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+    public ResponseEntity<CourseDto> getCourseById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String currentTag = ETags.of(courseService.getCourseVersion(id));
+            if (ETags.matches(ifNoneMatch, currentTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+            }
+        }
+        CourseDto course = courseService.getCourseById(id);
+        return ResponseEntity.ok().eTag(ETags.of(course.getVersion())).body(course);
     }
 
     /**
-     * Retrieves all courses.
+     * Retrieves all courses. The ETag is read before the listing, so a concurrent write can only
+     * make it older than the body, never newer.
      *
-     * @return list of all courses
+     * @param ifNoneMatch the ETag of the listing the client holds, if any
+     * @return list of all courses, or HTTP 304 if the client's listing is current
      */
     @GetMapping
-    public ResponseEntity<List<CourseDto>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<List<CourseDto>> getAllCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String currentTag = ETags.of(courseService.getAllCoursesVersion());
+        if (ETags.matches(ifNoneMatch, currentTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+        }
+        return ResponseEntity.ok().eTag(currentTag).body(courseService.getAllCourses());
+    }
+
+    /**
+     * Streams all courses as newline-delimited JSON. Selected by
+     * {@code Accept: application/x-ndjson}.
+     *
+     * @return the streamed courses, one JSON object per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return ndjsonStreamer.<CourseDto>stream(courseService::streamAllCourses);
+    }
+
+    /**
+     * Retrieves one page of courses ordered by ID. Selected when the {@code limit}
+     * parameter is present.
+     *
+     * @param after the cursor returned as {@code nextCursor} by the previous page
+     * @param limit the page size
+     * @return the page of courses
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDto<CourseDto>> getCoursesPage(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(courseService.getCoursesPage(after, limit));
+    }
+
+    /**
+     * Retrieves several courses by ID in one request. Selected when the {@code ids} parameter
+     * is present.
+     *
+     * @param ids the course IDs, comma-separated or repeated
+     * @return the courses found, in request order, and the IDs that were not found
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<CourseDto>> getCoursesByIds(
+            @RequestParam @Size(min = 1, max = MultiGetDto.MAX_IDS) List<Long> ids) {
+        return ResponseEntity.ok(courseService.getCoursesByIds(ids));
     }
 
     /**
      * Updates an existing course.
      *
-     * @param id  the course ID
+     * @param id        the course ID
      * @param courseDto the updated course data
+     * @param ifMatch   the ETag the update is based on; if present, the update only applies to that version
      * @return the updated course
      */
     @PutMapping("/{id}")
     public ResponseEntity<CourseDto> updateCourse(
             @PathVariable Long id,
-            @Valid @RequestBody CourseDto courseDto) {
-        return ResponseEntity.ok(courseService.updateCourse(id, courseDto));
+            @Valid @RequestBody CourseDto courseDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourseDto updated = courseService.updateCourse(id, courseDto, ETags.requiredVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     /**
@@ -1,10 +1,21 @@
 package com.school.controller;
 
+import com.school.cache.GroupDictionary;
+import com.school.dto.CursorPageDto;
 import com.school.dto.MemberDto;
+import com.school.dto.MultiGetDto;
 import com.school.enums.MemberType;
+import com.school.idempotency.IdempotentRequests;
 import com.school.service.MemberService;
+import com.school.web.ETags;
+import com.school.web.NdjsonStreamer;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,52 +23,104 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 /**
  * REST controller for managing members (students and teachers).
  * <p>
- * Provides CRUD endpoints under {@code /members}.
+ * Provides CRUD endpoints under {@code /members}. A single member carries an {@code ETag};
+ * {@code If-None-Match} is answered with 304 after a version lookup alone, and {@code If-Match}
+ * on update rejects writes based on a stale read with 412.
+ * <p>
+ * Writes register the member's group before calling the service. A new group is inserted in a
+ * transaction of its own, and doing that first means a request never holds a pooled connection
+ * for the member's transaction while waiting for a second one for the group.
  */
 @RestController
 @RequestMapping("/members")
 public class MemberController {
 
+    private static final int MAX_BULK_SIZE = 10_000;
+
     private final MemberService memberService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final IdempotentRequests idempotentRequests;
+    private final GroupDictionary groupDictionary;
 
     /**
      * Constructs the controller with the required service.
      *
-     * @param memberService the member service
+     * @param memberService      the member service
+     * @param ndjsonStreamer     the writer for streamed listings
+     * @param idempotentRequests the handler of idempotency keys on create
+     * @param groupDictionary    the group keys, registered before a write's transaction starts
      */
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, NdjsonStreamer ndjsonStreamer,
+                            IdempotentRequests idempotentRequests, GroupDictionary groupDictionary) {
         this.memberService = memberService;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.idempotentRequests = idempotentRequests;
+        this.groupDictionary = groupDictionary;
     }
 
     /**
-     * Creates a new member.
+     * Creates a new member. A retry with the same {@code Idempotency-Key} gets the first response
+     * back instead of creating the member again.
      *
-     * @param memberDto the member data
+     * @param memberDto      the member data
+     * @param idempotencyKey the client's key for this create, if any
      * @return the created member with HTTP 201
      */
     @PostMapping
-    public ResponseEntity<MemberDto> createMember(@Valid @RequestBody MemberDto memberDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(memberService.createMember(memberDto));
+    public ResponseEntity<MemberDto> createMember(
+            @Valid @RequestBody MemberDto memberDto,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false)
+            @Size(min = 1, max = IdempotentRequests.MAX_KEY_LENGTH) String idempotencyKey) {
+        return idempotentRequests.execute(idempotencyKey, "POST /members", memberDto, MemberDto.class, () -> {
+            groupDictionary.register(memberDto.getGroup());
+            MemberDto created = memberService.createMember(memberDto);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(created.getVersion())).body(created);
+        });
+    }
+
+    /**
+     * Creates members in bulk, in a single transaction.
+     *
+     * @param memberDtos the members to create
+     * @return the created members, in request order, with HTTP 201
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<MemberDto>> createMembers(
+            @RequestBody @Size(min = 1, max = MAX_BULK_SIZE) List<@Valid MemberDto> memberDtos) {
+        memberDtos.stream().map(MemberDto::getGroup).distinct().forEach(groupDictionary::register);
+        return ResponseEntity.status(HttpStatus.CREATED).body(memberService.createMembers(memberDtos));
     }
 
     /**
      * Retrieves a member by its ID.
      *
-     * @param id the member ID
-     * @return the member data
+     * @param id          the member ID
+     * @param ifNoneMatch the ETag of the copy the client holds, if any
+     * @return the member data, or HTTP 304 if the client's copy is current
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MemberDto> getMemberById(@PathVariable Long id) {
-        return ResponseEntity.ok(memberService.getMemberById(id));
+    public ResponseEntity<MemberDto> getMemberById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String currentTag = ETags.of(memberService.getMemberVersion(id));
+            if (ETags.matches(ifNoneMatch, currentTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentTag).build();
+            }
+        }
+        MemberDto member = memberService.getMemberById(id);
+        return ResponseEntity.ok().eTag(ETags.of(member.getVersion())).body(member);
     }
 
     /**
@@ -71,18 +134,64 @@ public class MemberController {
         return ResponseEntity.ok(memberService.getMembersByType(type));
     }
 
+    /**
+     * Streams all members of a given type as newline-delimited JSON. Selected by
+     * {@code Accept: application/x-ndjson}.
+     *
+     * @param type the member type (STUDENT or TEACHER)
+     * @return the streamed members, one JSON object per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembersByType(@RequestParam MemberType type) {
+        return ndjsonStreamer.<MemberDto>stream(sink -> memberService.streamMembersByType(type, sink));
+    }
+
+    /**
+     * Retrieves one page of members of a given type, ordered by ID. Selected when the
+     * {@code limit} parameter is present.
+     *
+     * @param type  the member type (STUDENT or TEACHER)
+     * @param after the cursor returned as {@code nextCursor} by the previous page
+     * @param limit the page size
+     * @return the page of members
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDto<MemberDto>> getMembersByTypePage(
+            @RequestParam MemberType type,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(memberService.getMembersByTypePage(type, after, limit));
+    }
+
+    /**
+     * Retrieves several members by ID in one request, with their course IDs. Selected when the
+     * {@code ids} parameter is present.
+     *
+     * @param ids the member IDs, comma-separated or repeated
+     * @return the members found, in request order, and the IDs that were not found
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<MemberDto>> getMembersByIds(
+            @RequestParam @Size(min = 1, max = MultiGetDto.MAX_IDS) List<Long> ids) {
+        return ResponseEntity.ok(memberService.getMembersByIds(ids));
+    }
+
     /**
      * Updates an existing member.
      *
-     * @param id  the member ID
+     * @param id        the member ID
      * @param memberDto the updated member data
+     * @param ifMatch   the ETag the update is based on; if present, the update only applies to that version
      * @return the updated member
      */
     @PutMapping("/{id}")
     public ResponseEntity<MemberDto> updateMember(
             @PathVariable Long id,
-            @Valid @RequestBody MemberDto memberDto) {
-        return ResponseEntity.ok(memberService.updateMember(id, memberDto));
+            @Valid @RequestBody MemberDto memberDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        groupDictionary.register(memberDto.getGroup());
+        MemberDto updated = memberService.updateMember(id, memberDto, ETags.requiredVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     /**
@@ -1,25 +1,38 @@
 package com.school.controller;
 
 import com.school.dto.CountDto;
+import com.school.dto.CursorPageDto;
 import com.school.dto.GroupCourseReportDto;
 import com.school.dto.MemberDto;
+import com.school.dto.StatsDto;
 import com.school.enums.CourseType;
 import com.school.enums.MemberType;
+import com.school.index.EnrollmentQuery;
 import com.school.service.CourseService;
 import com.school.service.MemberService;
+import com.school.service.StatsService;
+import com.school.web.NdjsonStreamer;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for reporting and analytics endpoints.
  * <p>
- * Provides read-only endpoints under {@code /reports} for counting members/courses
- * and filtering members by various criteria.
+ * Provides read-only endpoints under {@code /reports} for counting members/courses,
+ * filtering members by various criteria, boolean queries over course enrollments and a
+ * combined statistics report. List endpoints also accept {@code after} and
+ * {@code limit} parameters to return a single keyset page instead of the full list, and
+ * stream the full list as newline-delimited JSON for {@code Accept: application/x-ndjson}.
  */
 @RestController
 @RequestMapping("/reports")
@@ -27,16 +40,34 @@ public class ReportController {
 
     private final MemberService memberService;
     private final CourseService courseService;
+    private final StatsService statsService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     /**
      * Constructs the controller with the required services.
      *
-     * @param memberService the member service
-     * @param courseService the course service
+     * @param memberService  the member service
+     * @param courseService  the course service
+     * @param statsService   the statistics service
+     * @param ndjsonStreamer the writer for streamed listings
      */
-    public ReportController(MemberService memberService, CourseService courseService) {
+    public ReportController(MemberService memberService, CourseService courseService,
+                            StatsService statsService, NdjsonStreamer ndjsonStreamer) {
         this.memberService = memberService;
         this.courseService = courseService;
+        this.statsService = statsService;
+        this.ndjsonStreamer = ndjsonStreamer;
+    }
+
+    /**
+     * Returns member counts by type and group, course counts by type, enrollment counts per
+     * course and the age distribution of each group, in one response.
+     *
+     * @return the statistics report
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StatsDto> getStats() {
+        return ResponseEntity.ok(statsService.getStats());
     }
 
     /**
@@ -75,6 +106,40 @@ public class ReportController {
         return ResponseEntity.ok(memberService.findMembersByTypeAndCourseId(type, courseId));
     }
 
+    /**
+     * Streams members of a given type enrolled in a specific course as newline-delimited JSON.
+     *
+     * @param courseId the course ID
+     * @param type     the member type
+     * @return the streamed members, one JSON object per line
+     */
+    @GetMapping(value = "/courses/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembersByCourse(
+            @RequestParam Long courseId,
+            @RequestParam MemberType type) {
+        return ndjsonStreamer.<MemberDto>stream(
+                sink -> memberService.streamMembersByTypeAndCourseId(type, courseId, sink));
+    }
+
+    /**
+     * Retrieves one page of members of a given type enrolled in a specific course.
+     *
+     * @param courseId the course ID
+     * @param type     the member type
+     * @param after    the cursor returned as {@code nextCursor} by the previous page
+     * @param limit    the page size
+     * @return the page of matching members
+     */
+    @GetMapping(value = "/courses/members", params = "limit")
+    public ResponseEntity<CursorPageDto<MemberDto>> getMembersByCoursePage(
+            @RequestParam Long courseId,
+            @RequestParam MemberType type,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(
+                memberService.findMembersByTypeAndCourseIdPage(type, courseId, after, limit));
+    }
+
     /**
      * Retrieves all members belonging to a specific group.
      *
@@ -86,6 +151,33 @@ public class ReportController {
         return ResponseEntity.ok(memberService.findMembersByGroup(group));
     }
 
+    /**
+     * Streams all members belonging to a specific group as newline-delimited JSON.
+     *
+     * @param group the group name
+     * @return the streamed members, one JSON object per line
+     */
+    @GetMapping(value = "/groups/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembersByGroup(@RequestParam String group) {
+        return ndjsonStreamer.<MemberDto>stream(sink -> memberService.streamMembersByGroup(group, sink));
+    }
+
+    /**
+     * Retrieves one page of members belonging to a specific group.
+     *
+     * @param group the group name
+     * @param after the cursor returned as {@code nextCursor} by the previous page
+     * @param limit the page size
+     * @return the page of members in the group
+     */
+    @GetMapping(value = "/groups/members", params = "limit")
+    public ResponseEntity<CursorPageDto<MemberDto>> getMembersByGroupPage(
+            @RequestParam String group,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(memberService.findMembersByGroupPage(group, after, limit));
+    }
+
     /**
      * Retrieves a report of members in a group enrolled in a specific course,
      * split by students and teachers.
@@ -118,4 +210,91 @@ public class ReportController {
                 memberService.findMembersByTypeAndAgeGreaterThanAndCourseId(
                         type, minAge, courseId));
     }
+
+    /**
+     * Streams members filtered by type, minimum age, and course enrollment as
+     * newline-delimited JSON.
+     *
+     * @param minAge   the minimum age (inclusive)
+     * @param courseId the course ID
+     * @param type     the member type
+     * @return the streamed members, one JSON object per line
+     */
+    @GetMapping(value = "/members/filter", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembersByCriterias(
+            @RequestParam Integer minAge,
+            @RequestParam Long courseId,
+            @RequestParam MemberType type) {
+        return ndjsonStreamer.<MemberDto>stream(sink -> memberService
+                .streamMembersByTypeAndAgeGreaterThanAndCourseId(type, minAge, courseId, sink));
+    }
+
+    /**
+     * Filters one page of members by type, minimum age, and course enrollment.
+     *
+     * @param minAge   the minimum age (inclusive)
+     * @param courseId the course ID
+     * @param type     the member type
+     * @param after    the cursor returned as {@code nextCursor} by the previous page
+     * @param limit    the page size
+     * @return the page of matching members
+     */
+    @GetMapping(value = "/members/filter", params = "limit")
+    public ResponseEntity<CursorPageDto<MemberDto>> filterMembersByCriteriasPage(
+            @RequestParam Integer minAge,
+            @RequestParam Long courseId,
+            @RequestParam MemberType type,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(
+                memberService.findMembersByTypeAndAgeGreaterThanAndCourseIdPage(
+                        type, minAge, courseId, after, limit));
+    }
+
+    /**
+     * Counts the members matching a boolean query over course enrollments.
+     *
+     * @param allOf  courses a member must all be enrolled in
+     * @param anyOf  courses a member must be enrolled in at least one of
+     * @param noneOf courses a member must not be enrolled in
+     * @param type   the member type, or any type if omitted
+     * @param group  the member group, or any group if omitted
+     * @return the count
+     */
+    @GetMapping("/enrollments/count")
+    public ResponseEntity<CountDto> countByEnrollmentQuery(
+            @RequestParam(required = false) Set<Long> allOf,
+            @RequestParam(required = false) Set<Long> anyOf,
+            @RequestParam(required = false) Set<Long> noneOf,
+            @RequestParam(required = false) MemberType type,
+            @RequestParam(required = false) String group) {
+        return ResponseEntity.ok(memberService.countByEnrollmentQuery(
+                new EnrollmentQuery(allOf, anyOf, noneOf, type, group)));
+    }
+
+    /**
+     * Retrieves one page of members matching a boolean query over course enrollments, e.g.
+     * students of a group enrolled in courses 1 and 2 but not in course 3.
+     *
+     * @param allOf  courses a member must all be enrolled in
+     * @param anyOf  courses a member must be enrolled in at least one of
+     * @param noneOf courses a member must not be enrolled in
+     * @param type   the member type, or any type if omitted
+     * @param group  the member group, or any group if omitted
+     * @param after  the cursor returned as {@code nextCursor} by the previous page
+     * @param limit  the page size
+     * @return the page of matching members
+     */
+    @GetMapping("/enrollments/query")
+    public ResponseEntity<CursorPageDto<MemberDto>> findByEnrollmentQuery(
+            @RequestParam(required = false) Set<Long> allOf,
+            @RequestParam(required = false) Set<Long> anyOf,
+            @RequestParam(required = false) Set<Long> noneOf,
+            @RequestParam(required = false) MemberType type,
+            @RequestParam(required = false) String group,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(CursorPageDto.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(memberService.findByEnrollmentQueryPage(
+                new EnrollmentQuery(allOf, anyOf, noneOf, type, group), after, limit));
+    }
 }
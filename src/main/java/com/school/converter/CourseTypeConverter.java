@@ -0,0 +1,22 @@
+package com.school.converter;
+
+import com.school.enums.CourseType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link CourseType} as its {@code smallint} code instead of its name.
+ */
+@Converter
+public class CourseTypeConverter implements AttributeConverter<CourseType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(CourseType type) {
+        return type == null ? null : type.getCode();
+    }
+
+    @Override
+    public CourseType convertToEntityAttribute(Short code) {
+        return code == null ? null : CourseType.fromCode(code);
+    }
+}
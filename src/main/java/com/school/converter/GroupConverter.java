@@ -0,0 +1,42 @@
+package com.school.converter;
+
+import com.school.cache.GroupDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Stores a member group as the integer key of its {@code member_groups} row instead of its name.
+ * <p>
+ * Query parameters compared against a group go through the converter too, so group filters
+ * compare integers. A group name with no row converts to {@code null}, which matches no member;
+ * writers must {@link GroupDictionary#register(String) register} a group before storing it.
+ * <p>
+ * Hibernate obtains the converter from the Spring context while the entity manager factory is
+ * being built; the dictionary is injected lazily because it depends on the transaction manager,
+ * which depends on that factory.
+ */
+@Converter
+public class GroupConverter implements AttributeConverter<String, Integer> {
+
+    private final GroupDictionary groupDictionary;
+
+    /**
+     * Constructs the converter with the group dictionary.
+     *
+     * @param groupDictionary the group dictionary, resolved on first use
+     */
+    public GroupConverter(@Lazy GroupDictionary groupDictionary) {
+        this.groupDictionary = groupDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String group) {
+        return group == null ? null : groupDictionary.idOf(group);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer groupId) {
+        return groupId == null ? null : groupDictionary.nameOf(groupId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.school.converter;
+
+import com.school.enums.MemberType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link MemberType} as its {@code smallint} code instead of its name.
+ */
+@Converter
+public class MemberTypeConverter implements AttributeConverter<MemberType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(MemberType type) {
+        return type == null ? null : type.getCode();
+    }
+
+    @Override
+    public MemberType convertToEntityAttribute(Short code) {
+        return code == null ? null : MemberType.fromCode(code);
+    }
+}
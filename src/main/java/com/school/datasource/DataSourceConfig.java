@@ -0,0 +1,75 @@
+package com.school.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits database access over two connection pools: writes use the primary pool configured under
+ * {@code spring.datasource}, and read-only transactions use a replica pool configured under
+ * {@code school.datasource.replica}, so report traffic cannot take every connection a write needs.
+ * <p>
+ * The replica pool starts from the primary's URL and credentials; set
+ * {@code school.datasource.replica.jdbc-url} to point it at a replica. Schema migrations always
+ * run against the primary.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Creates the primary pool, with the Hikari settings under {@code spring.datasource.hikari}.
+     *
+     * @param properties the primary connection settings
+     * @return the primary pool
+     */
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the replica pool. It copies the primary's connection settings, which the Hikari
+     * settings under {@code school.datasource.replica} then override.
+     *
+     * @param properties the primary connection settings
+     * @return the replica pool
+     */
+    @Bean
+    @ConfigurationProperties("school.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    /**
+     * Creates the data source the application uses, routing each transaction to a pool.
+     *
+     * @param primary the primary pool
+     * @param replica the replica pool
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        var routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
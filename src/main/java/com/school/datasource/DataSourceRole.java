@@ -0,0 +1,9 @@
+package com.school.datasource;
+
+/**
+ * The connection pools a {@link ReadWriteRoutingDataSource} routes between.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
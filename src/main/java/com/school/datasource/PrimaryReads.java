@@ -0,0 +1,36 @@
+package com.school.datasource;
+
+/**
+ * Per-thread switch that sends read-only transactions to the primary instead of the replica,
+ * for callers that must see a write the replica may not have applied yet.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Routes the current thread's read-only transactions to the primary until {@link #clear()}.
+     */
+    public static void force() {
+        FORCED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Restores replica routing for the current thread's read-only transactions.
+     */
+    public static void clear() {
+        FORCED.remove();
+    }
+
+    /**
+     * Returns whether the current thread's read-only transactions go to the primary.
+     *
+     * @return whether primary reads are forced
+     */
+    public static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+}
@@ -0,0 +1,23 @@
+package com.school.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions to the replica pool and all others, including
+ * connections taken outside a transaction, to the primary pool.
+ * <p>
+ * The transaction's read-only flag is only known once the transaction has begun, after the
+ * transaction manager has asked for a connection. This data source must therefore sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers
+ * choosing a pool until the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && Boolean.FALSE.equals(PrimaryReads.isForced())
+                ? DataSourceRole.REPLICA
+                : DataSourceRole.PRIMARY;
+    }
+}
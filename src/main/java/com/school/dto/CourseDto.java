@@ -1,5 +1,6 @@
 package com.school.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.school.enums.CourseType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +14,7 @@ import lombok.Setter;
  * Data transfer object for course data.
  * <p>
  * Used for both request and response payloads in course endpoints.
+ * The entity version is carried for the {@code ETag} header and is not part of the JSON body.
  */
 @Getter
 @Setter
@@ -26,4 +28,6 @@ public class CourseDto {
     private String name;
     @NotNull
     private CourseType type;
+    @JsonIgnore
+    private Long version;
 }
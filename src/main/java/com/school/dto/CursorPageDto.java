@@ -0,0 +1,25 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data transfer object for a single page of a keyset-paginated listing.
+ * <p>
+ * Pages are ordered by ID. {@code nextCursor} is the ID of the last item on the page and
+ * is passed back as {@code after} to fetch the following page; it is {@code null} on the last page.
+ *
+ * @param <T> the item type
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    /** Largest page size a client may request. */
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+}
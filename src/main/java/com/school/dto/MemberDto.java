@@ -1,5 +1,6 @@
 package com.school.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.school.enums.MemberType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -17,6 +18,8 @@ import java.util.Set;
  * <p>
  * Used for both request and response payloads in member endpoints.
  * Course associations are represented as a set of course IDs.
+ * The entity version is carried for the {@code ETag} header and is not part of the JSON body,
+ * nor are the properties derived from the type and course IDs.
  */
 @Getter
 @Setter
@@ -40,14 +43,20 @@ public class MemberDto {
 
     private Set<Long> courseIds;
 
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
     public boolean isAssignedToCourses() {
         return courseIds != null && !courseIds.isEmpty();
     }
 
+    @JsonIgnore
     public boolean isTeacher() {
         return type == MemberType.TEACHER;
     }
 
+    @JsonIgnore
     public boolean isStudent() {
         return type == MemberType.STUDENT;
     }
@@ -0,0 +1,56 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Data transfer object for a lookup of several resources by ID.
+ * <p>
+ * {@code items} holds the resources found, in the order their IDs were requested; an ID requested
+ * twice yields one item. {@code missingIds} lists the requested IDs that do not exist, in the same order.
+ *
+ * @param <T> the item type
+ */
+@Getter
+@AllArgsConstructor
+public class MultiGetDto<T> {
+
+    /** Largest number of IDs a client may request at once. */
+    public static final int MAX_IDS = 500;
+
+    private List<T> items;
+    private List<Long> missingIds;
+
+    /**
+     * Orders the resources found by the requested IDs and collects the IDs that were not found.
+     *
+     * @param requestedIds the IDs as requested, possibly with repeats
+     * @param found        the resources found, in any order
+     * @param idOf         extracts a resource's ID
+     * @param <T>          the item type
+     * @return the lookup result
+     */
+    public static <T> MultiGetDto<T> inRequestOrder(Collection<Long> requestedIds, List<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>(found.size());
+        found.forEach(item -> byId.put(idOf.apply(item), item));
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(requestedIds)) {
+            T item = byId.get(id);
+            if (item == null) {
+                missingIds.add(id);
+            } else {
+                items.add(item);
+            }
+        }
+        return new MultiGetDto<>(items, missingIds);
+    }
+}
@@ -0,0 +1,33 @@
+package com.school.dto;
+
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Data transfer object for the statistics report.
+ * <p>
+ * Gathers the counts a dashboard needs into one response: members by type and group, courses by
+ * type, enrollments per course and the age distribution of each group. Age buckets are keyed by
+ * their lowest age and span {@code ageBucketWidth} years; groups and buckets without members are
+ * left out, while every member and course type is present.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsDto {
+
+    private Map<MemberType, Map<String, Long>> membersByTypeAndGroup;
+    private Map<CourseType, Long> coursesByType;
+    private Map<Long, Long> enrollmentsByCourse;
+    private Map<String, Map<Integer, Long>> ageBucketsByGroup;
+    private int ageBucketWidth;
+}
@@ -1,26 +1,39 @@
 package com.school.entity;
 
+import com.school.converter.CourseTypeConverter;
 import com.school.enums.CourseType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
 /**
  * JPA entity representing a school course.
  * <p>
- * Courses have a type (MAIN or SECONDARY) and can have multiple {@link Member members}
+ * Courses have a type (MAIN or SECONDARY), stored as a small integer code, and can have multiple {@link Member members}
  * enrolled via a many-to-many relationship.
+ * <p>
+ * Courses are small and read-mostly, so they are held in Hibernate's second-level cache, in the
+ * {@code courses} region. Writes through the persistence context update the cached entry when their
+ * transaction commits.
+ * <p>
+ * {@link #version} is incremented on every update. It guards against lost updates and is the
+ * course's HTTP ETag.
  */
 @Entity
 @Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,10 +42,14 @@ public class Course extends BaseEntity {
     @Column(nullable = false)
     private String name;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = CourseTypeConverter.class)
     @Column(nullable = false)
     private CourseType type;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToMany(mappedBy = "courses")
     private Set<Member> members;
 }
@@ -0,0 +1,36 @@
+package com.school.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity assigning a teacher to a course.
+ * <p>
+ * The course ID is the primary key, so the database rejects a second teacher for the same
+ * course even when two requests pass the service-level check concurrently.
+ */
+@Entity
+@Table(name = "course_teachers")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseTeacher {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member teacher;
+}
@@ -1,14 +1,16 @@
 package com.school.entity;
 
+import com.school.converter.GroupConverter;
+import com.school.converter.MemberTypeConverter;
 import com.school.enums.MemberType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -20,6 +22,12 @@ import java.util.Set;
  * <p>
  * Members belong to a group and can be enrolled in multiple {@link Course courses}
  * via a many-to-many relationship.
+ * <p>
+ * The group is stored as a key into {@code member_groups} and the type as a small integer code;
+ * both read as their names.
+ * <p>
+ * {@link #version} is incremented on every update, including changes to the course enrollments.
+ * It guards against lost updates and is the member's HTTP ETag.
  */
 @Entity
 @Table(name = "members")
@@ -34,13 +42,18 @@ public class Member extends BaseEntity {
     @Column(nullable = false)
     private Integer age;
 
-    @Column(name = "member_group", nullable = false)
+    @Convert(converter = GroupConverter.class)
+    @Column(name = "group_id", nullable = false)
     private String group;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = MemberTypeConverter.class)
     @Column(nullable = false)
     private MemberType type;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToMany
     @JoinTable(
         name = "member_courses",
@@ -0,0 +1,29 @@
+package com.school.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity holding the number of rows of one member or course type.
+ * <p>
+ * The ID names the table and the type, e.g. {@code members:STUDENT}. Counts are kept up to date
+ * by the services in the same transaction as the write they reflect.
+ */
+@Entity
+@Table(name = "type_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TypeCount {
+
+    @Id
+    private String id;
+
+    @Column(name = "row_count", nullable = false)
+    private long count;
+}
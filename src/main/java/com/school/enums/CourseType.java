@@ -1,9 +1,43 @@
 package com.school.enums;
 
+import java.util.Arrays;
+
 /**
  * Enumeration of course types in the school system.
+ * <p>
+ * Each type is stored as its {@link #getCode() code}; codes are part of the schema and must not
+ * change or be reused.
  */
 public enum CourseType {
-    MAIN,
-    SECONDARY
+    MAIN(1),
+    SECONDARY(2);
+
+    private final short code;
+
+    CourseType(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * Returns the code stored in the database for this type.
+     *
+     * @return the code
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the type stored as the given code.
+     *
+     * @param code the stored code
+     * @return the type
+     * @throws IllegalArgumentException if no type has the code
+     */
+    public static CourseType fromCode(short code) {
+        return Arrays.stream(values())
+                .filter(type -> type.code == code)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown course type code: %d", code)));
+    }
 }
@@ -1,18 +1,27 @@
 package com.school.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.validation.method.ParameterErrors;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.Map;
 
 /**
  * Global exception handler for REST controllers.
  * <p>
- * Translates application exceptions into appropriate HTTP error responses.
+ * Translates application exceptions into appropriate HTTP error responses. Error bodies are
+ * always JSON, including for requests that only accept {@code application/x-ndjson}.
  */
 @Slf4j
 @RestControllerAdvice
@@ -27,6 +36,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleNotFound(ResourceNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(Map.of("error", ex.getMessage()));
     }
 
@@ -42,7 +52,34 @@ public class GlobalExceptionHandler {
         var errors = new java.util.HashMap<String, String>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(e -> errors.put(e.getField(), e.getDefaultMessage()));
-        return ResponseEntity.badRequest().body(errors);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errors);
+    }
+
+    /**
+     * Handles request parameter validation exceptions and returns HTTP 400 with
+     * parameter-level error details.
+     * <p>
+     * Errors on elements of a validated list body are keyed by parameter, index and field,
+     * e.g. {@code memberDtos[3].name}.
+     *
+     * @param ex the validation exception
+     * @return error response mapping parameter names to error messages
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<Map<String, String>> handleParameterValidation(
+            HandlerMethodValidationException ex) {
+        var errors = new java.util.HashMap<String, String>();
+        ex.getAllValidationResults().forEach(r -> {
+            var key = r.getMethodParameter().getParameterName();
+            if (r instanceof ParameterErrors pe && pe.getContainerIndex() != null) {
+                key += "[" + pe.getContainerIndex() + "]";
+            }
+            for (var e : r.getResolvableErrors()) {
+                errors.put(e instanceof FieldError fe ? key + "." + fe.getField() : key,
+                        e.getDefaultMessage());
+            }
+        });
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errors);
     }
 
     /**
@@ -55,9 +92,90 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, String>> handleDuplicateTeacher(
             DuplicateTeacherException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    /**
+     * Handles conditional writes whose {@code If-Match} names a stale version and returns HTTP 412.
+     *
+     * @param ex the exception
+     * @return error response with the exception message
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    /**
+     * Handles idempotency keys reused with a different request body and returns HTTP 422.
+     *
+     * @param ex the exception
+     * @return error response with the exception message
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    /**
+     * Handles requests whose idempotency key is still held by an unfinished earlier request and
+     * returns HTTP 409; the client should retry later with the same key.
+     *
+     * @param ex the exception
+     * @return error response with the exception message
+     */
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotentRequestInProgress(
+            IdempotentRequestInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    /**
+     * Handles updates that lost a race with a concurrent update of the same row: the row's
+     * version changed between reading and writing it. Returns HTTP 412 if the request was
+     * conditional on {@code If-Match}, since its precondition no longer holds, and HTTP 409
+     * otherwise.
+     *
+     * @param ex      the exception
+     * @param request the request, to tell conditional writes apart
+     * @return error response asking the client to re-read and retry
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrentUpdate(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        log.info("Concurrent update rejected: {}", ex.getMessage());
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "The resource was modified concurrently, please re-read it and retry"));
+    }
+
+    /**
+     * Handles requests that timed out waiting for a database connection and returns HTTP 503.
+     * <p>
+     * The connection pool bounds how many transactions run at once; requests beyond that wait for
+     * up to {@code spring.datasource.hikari.connection-timeout} and are then shed here.
+     *
+     * @param ex the exception
+     * @return error response with a generic message
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleNoConnection(CannotCreateTransactionException ex) {
+        log.warn("No database connection available: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "Service is busy, please retry"));
+    }
+
     /**
      * Catches all unhandled exceptions and returns HTTP 500.
      * <p>
@@ -70,6 +188,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, String>> handleUncaught(Throwable ex) {
         log.error("Unexpected error occurred", ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(Map.of("error", "An unexpected error occurred"));
     }
 }
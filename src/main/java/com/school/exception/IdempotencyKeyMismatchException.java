@@ -0,0 +1,18 @@
+package com.school.exception;
+
+/**
+ * Exception thrown when an {@code Idempotency-Key} is sent again with a different request body.
+ * <p>
+ * Handled by {@link GlobalExceptionHandler} to return HTTP 422 Unprocessable Entity responses.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Constructs the exception with a descriptive message.
+     *
+     * @param message the detail message
+     */
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.school.exception;
+
+/**
+ * Exception thrown when a request with an {@code Idempotency-Key} gives up waiting for an earlier
+ * request with the same key to finish.
+ * <p>
+ * Handled by {@link GlobalExceptionHandler} to return HTTP 409 Conflict responses.
+ */
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    /**
+     * Constructs the exception with a descriptive message.
+     *
+     * @param message the detail message
+     */
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.school.exception;
+
+/**
+ * Exception thrown when a conditional write names a version the resource no longer has.
+ * <p>
+ * Handled by {@link GlobalExceptionHandler} to return HTTP 412 Precondition Failed responses.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructs the exception with a descriptive message.
+     *
+     * @param message the detail message
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package com.school.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires the idempotency store selected by {@code school.idempotency.store}. The in-memory store's
+ * hit, miss and eviction metrics are published under the {@code cache} tag {@value #CACHE_NAME}.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    static final String CACHE_NAME = "idempotency";
+
+    /**
+     * Creates the idempotency store.
+     *
+     * @param properties    the idempotency configuration
+     * @param jdbcTemplate  the JDBC template, for the database store
+     * @param meterRegistry the meter registry, for the in-memory store's metrics
+     * @return the idempotency store
+     */
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                                             MeterRegistry meterRegistry) {
+        return switch (properties.store()) {
+            case MEMORY -> {
+                var store = new InMemoryIdempotencyStore(properties.maximumSize(), properties.ttl(),
+                        properties.inFlightTtl());
+                CaffeineCacheMetrics.monitor(meterRegistry, store.nativeCache(), CACHE_NAME);
+                yield store;
+            }
+            case DATABASE -> new JdbcIdempotencyStore(jdbcTemplate, properties.ttl(), properties.inFlightTtl(),
+                    Clock.systemUTC());
+        };
+    }
+}
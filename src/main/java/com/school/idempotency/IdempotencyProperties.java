@@ -0,0 +1,35 @@
+package com.school.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@code Idempotency-Key} handling on create requests.
+ *
+ * @param store       where keys and responses are kept
+ * @param ttl         how long a completed response is replayed
+ * @param inFlightTtl how long a key stays claimed by a request that has not completed, e.g. because
+ *                    its node crashed; should exceed the slowest create request
+ * @param waitTimeout how long a duplicate waits for the request that claimed its key
+ * @param maximumSize the maximum number of keys held by the in-memory store
+ */
+@ConfigurationProperties("school.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("memory") Store store,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("1m") Duration inFlightTtl,
+        @DefaultValue("10s") Duration waitTimeout,
+        @DefaultValue("100000") long maximumSize) {
+
+    /**
+     * Where idempotency keys are kept.
+     */
+    public enum Store {
+        /** In this instance's memory; duplicates sent to other instances run again. */
+        MEMORY,
+        /** In the {@code idempotency_keys} table, shared by every instance. */
+        DATABASE
+    }
+}
@@ -0,0 +1,47 @@
+package com.school.idempotency;
+
+import com.school.exception.IdempotencyKeyMismatchException;
+import com.school.exception.IdempotentRequestInProgressException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Records which idempotency keys have been used, by which request, and the response each got.
+ * <p>
+ * A request first claims its key. The first claim of a key owns it: the caller runs the request
+ * and then either completes the key with the response, or releases it if the request failed so
+ * that a retry runs again. Later claims with the same request wait for the owner and get its
+ * response.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key, or waits for the request that owns it to complete.
+     *
+     * @param key         the idempotency key, scoped to the endpoint
+     * @param fingerprint the fingerprint of the request body
+     * @param waitTimeout how long to wait for an owning request that is still running
+     * @return empty if the caller now owns the key, otherwise the owner's stored response
+     * @throws IdempotencyKeyMismatchException       if the key was claimed by a different request body
+     * @throws IdempotentRequestInProgressException if the owner did not finish within the timeout
+     */
+    Optional<StoredResponse> claim(String key, String fingerprint, Duration waitTimeout);
+
+    /**
+     * Stores the response of the request that owns a key, for replay until the key expires.
+     *
+     * @param key         the idempotency key, scoped to the endpoint
+     * @param fingerprint the fingerprint of the request body
+     * @param response    the response
+     */
+    void complete(String key, String fingerprint, StoredResponse response);
+
+    /**
+     * Gives up ownership of a key whose request failed, so that the next claim runs it again.
+     *
+     * @param key         the idempotency key, scoped to the endpoint
+     * @param fingerprint the fingerprint of the request body
+     */
+    void release(String key, String fingerprint);
+}
@@ -0,0 +1,118 @@
+package com.school.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs create requests at most once per {@value #HEADER}.
+ * <p>
+ * A request without the header runs as usual. The first request with a key runs and its response
+ * is stored; a retry with the same key and body gets the stored response back, marked with
+ * {@value #REPLAYED_HEADER}, without running again. A retry that arrives while the first request
+ * is still running waits for it. Reusing a key with a different body is rejected with 422. Failed
+ * requests are not stored, so their retries run again.
+ * <p>
+ * Keys are scoped to the endpoint and are not tied to a client, so clients should use random keys
+ * such as UUIDs.
+ */
+@Component
+public class IdempotentRequests {
+
+    /** Request header carrying the client's idempotency key. */
+    public static final String HEADER = "Idempotency-Key";
+
+    /** Response header marking a replayed response. */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** Maximum length of an idempotency key. */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    /**
+     * Constructs the handler.
+     *
+     * @param store        the store of keys and responses
+     * @param objectMapper the object mapper request and response bodies are serialized with
+     * @param properties   the idempotency configuration
+     */
+    public IdempotentRequests(IdempotencyStore store, ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs a create request once per idempotency key, replaying the stored response to retries.
+     *
+     * @param idempotencyKey the client's key, or {@code null} to run the request unconditionally
+     * @param endpoint       the endpoint the key is scoped to, e.g. {@code POST /courses}
+     * @param request        the request body, whose fingerprint a retry must match
+     * @param responseType   the response body type, to read a stored response back
+     * @param action         runs the request
+     * @param <T>            the response body type
+     * @return the response of the request, or the stored response of an earlier one
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String endpoint, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        String key = endpoint + " " + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        Optional<StoredResponse> stored = store.claim(key, fingerprint, properties.waitTimeout());
+        if (stored.isPresent()) {
+            return replay(stored.get(), responseType);
+        }
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            store.release(key, fingerprint);
+            throw e;
+        }
+        store.complete(key, fingerprint, new StoredResponse(response.getStatusCode().value(),
+                response.getHeaders().getETag(), toJson(response.getBody())));
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> responseType) {
+        var builder = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.etag() != null) {
+            builder.eTag(stored.etag());
+        }
+        try {
+            return builder.body(objectMapper.readValue(stored.body(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be read as " + responseType.getSimpleName(), e);
+        }
+    }
+
+    /** Hashes the request body's JSON, so that stored keys hold a fixed-size fingerprint. */
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.school.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.school.exception.IdempotencyKeyMismatchException;
+import com.school.exception.IdempotentRequestInProgressException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency store held in this instance's memory, bounded in size.
+ * <p>
+ * Each key maps to the fingerprint of the request that claimed it and a future of its response,
+ * which duplicates wait on. Keys expire per entry through Caffeine's variable expiration, which
+ * keeps them on a hierarchical timing wheel: a claimed key expires {@code inFlightTtl} after it was
+ * claimed, and a completed one {@code ttl} after it completed. When the store is full, the least
+ * valuable keys are evicted first (W-TinyLFU); a duplicate of an evicted key runs again.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> cache;
+
+    /**
+     * Constructs the store.
+     *
+     * @param maximumSize the maximum number of keys
+     * @param ttl         how long a completed response is kept
+     * @param inFlightTtl how long a key stays claimed without completing
+     */
+    public InMemoryIdempotencyStore(long maximumSize, Duration ttl, Duration inFlightTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return inFlightTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.response().isDone() ? ttl.toNanos() : currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> claim(String key, String fingerprint, Duration waitTimeout) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Entry existing = cache.asMap().putIfAbsent(key, new Entry(fingerprint, new CompletableFuture<>()));
+            if (existing == null) {
+                return Optional.empty();
+            }
+            if (Boolean.FALSE.equals(existing.fingerprint().equals(fingerprint))) {
+                throw new IdempotencyKeyMismatchException("Idempotency key was already used with a different request");
+            }
+            try {
+                return Optional.of(existing.response().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException | CancellationException e) {
+                // The owner failed and released the key; claim it again
+            } catch (TimeoutException e) {
+                throw inProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.fingerprint().equals(fingerprint) && entry.response().complete(response)) {
+            // Writing the entry back restarts its expiry, now with the completed TTL
+            cache.asMap().replace(key, entry, entry);
+        }
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.fingerprint().equals(fingerprint)
+                && Boolean.FALSE.equals(entry.response().isDone())) {
+            cache.asMap().remove(key, entry);
+            entry.response().cancel(false);
+        }
+    }
+
+    /**
+     * Exposes the underlying cache for metrics binding.
+     *
+     * @return the Caffeine cache
+     */
+    public Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    private static IdempotentRequestInProgressException inProgress() {
+        return new IdempotentRequestInProgressException(
+                "A request with this idempotency key is still in progress, please retry later");
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+}
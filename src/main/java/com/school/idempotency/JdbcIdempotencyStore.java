@@ -0,0 +1,128 @@
+package com.school.idempotency;
+
+import com.school.exception.IdempotencyKeyMismatchException;
+import com.school.exception.IdempotentRequestInProgressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency store kept in the {@code idempotency_keys} table, so that a duplicate sent to any
+ * instance is recognized.
+ * <p>
+ * A key is claimed by inserting its row; the primary key makes exactly one instance succeed. The
+ * others poll the row until the owner stores its response, releases the key by deleting the row,
+ * or the wait times out. Rows past {@code expires_at} are ignored and replaced on the next claim,
+ * and deleted in the background every {@code school.idempotency.purge-interval}.
+ */
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTtl;
+    private final Clock clock;
+
+    /**
+     * Constructs the store.
+     *
+     * @param jdbcTemplate the JDBC template
+     * @param ttl          how long a completed response is kept
+     * @param inFlightTtl  how long a key stays claimed without completing
+     * @param clock        the clock expiry times are taken from
+     */
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration inFlightTtl, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.inFlightTtl = inFlightTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredResponse> claim(String key, String fingerprint, Duration waitTimeout) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Instant now = clock.instant();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (id, fingerprint, expires_at) VALUES (?, ?, ?)",
+                        key, fingerprint, Timestamp.from(now.plus(inFlightTtl)));
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                // Claimed before; read what the owner has stored
+            }
+            List<Row> rows = jdbcTemplate.query(
+                    "SELECT fingerprint, response_status, response_etag, response_body, expires_at "
+                            + "FROM idempotency_keys WHERE id = ?",
+                    (rs, rowNum) -> new Row(rs.getString(1), rs.getObject(2, Integer.class), rs.getString(3),
+                            rs.getString(4), rs.getTimestamp(5).toInstant()),
+                    key);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            Row row = rows.get(0);
+            if (row.expiresAt().isBefore(now)) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND expires_at < ?",
+                        key, Timestamp.from(now));
+                continue;
+            }
+            if (Boolean.FALSE.equals(row.fingerprint().equals(fingerprint))) {
+                throw new IdempotencyKeyMismatchException("Idempotency key was already used with a different request");
+            }
+            if (row.status() != null) {
+                return Optional.of(new StoredResponse(row.status(), row.etag(), row.body()));
+            }
+            if (System.nanoTime() >= deadline) {
+                throw inProgress();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response_status = ?, response_etag = ?, response_body = ?, "
+                        + "expires_at = ? WHERE id = ? AND fingerprint = ? AND response_status IS NULL",
+                response.status(), response.etag(), response.body(), Timestamp.from(clock.instant().plus(ttl)),
+                key, fingerprint);
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND fingerprint = ? AND response_status IS NULL",
+                key, fingerprint);
+    }
+
+    /**
+     * Deletes expired keys.
+     */
+    @Scheduled(initialDelayString = "${school.idempotency.purge-interval:PT1M}",
+            fixedDelayString = "${school.idempotency.purge-interval:PT1M}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?",
+                Timestamp.from(clock.instant()));
+        log.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    private static IdempotentRequestInProgressException inProgress() {
+        return new IdempotentRequestInProgressException(
+                "A request with this idempotency key is still in progress, please retry later");
+    }
+
+    private record Row(String fingerprint, Integer status, String etag, String body, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.school.idempotency;
+
+/**
+ * The response to a completed idempotent request, kept for replay.
+ *
+ * @param status the HTTP status code
+ * @param etag   the {@code ETag} header, or {@code null} if there was none
+ * @param body   the body as JSON
+ */
+public record StoredResponse(int status, String etag, String body) {
+}
@@ -0,0 +1,240 @@
+package com.school.index;
+
+import com.school.dto.MemberDto;
+import com.school.enums.MemberType;
+import com.school.repository.MemberCourseId;
+import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of members by course, type and group, kept as compressed bitmaps of member IDs.
+ * <p>
+ * {@link EnrollmentQuery Enrollment queries} are answered by intersecting, uniting and subtracting
+ * these bitmaps, without touching the database. The index is loaded from the database before the
+ * application starts serving requests, and {@code MemberService} applies each member write to it
+ * once the write's transaction has committed, so queries never see uncommitted or rolled-back
+ * writes. Only writes made through this instance are seen.
+ * <p>
+ * Member IDs are stored as {@code int}s; IDs come from a sequence starting at 1, and an ID beyond
+ * the {@code int} range fails the write's index update loudly rather than being truncated.
+ */
+@Slf4j
+@Component
+public class EnrollmentIndex implements SmartInitializingSingleton {
+
+    /** Exclusive end of the ID range a bitmap can hold. */
+    private static final long MAX_ID_RANGE_END = 1L << 32;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnly;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<MemberType, RoaringBitmap> byType = new EnumMap<>(MemberType.class);
+    private final Map<String, RoaringBitmap> byGroup = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byCourse = new HashMap<>();
+
+    /**
+     * Constructs the index.
+     *
+     * @param memberRepository   the repository the index is loaded from
+     * @param transactionManager the manager for the read-only load transaction
+     */
+    public EnrollmentIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        for (MemberType type : MemberType.values()) {
+            byType.put(type, new RoaringBitmap());
+        }
+    }
+
+    /**
+     * Loads the index once all beans exist, which is before the web server starts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        readOnly.executeWithoutResult(status -> load());
+        log.info("Loaded enrollment index of {} members in {} ms",
+                all.getLongCardinality(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds or replaces members once the current transaction commits, or right away outside a transaction.
+     *
+     * @param members the members as written, with their IDs and course IDs
+     */
+    public void putAfterCommit(Collection<MemberDto> members) {
+        List<MemberDto> snapshot = List.copyOf(members);
+        afterCommit(() -> put(snapshot));
+    }
+
+    /**
+     * Removes a member once the current transaction commits, or right away outside a transaction.
+     *
+     * @param memberId the member ID
+     */
+    public void removeAfterCommit(Long memberId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeLocked(toInt(memberId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Counts the members matching a query.
+     *
+     * @param query the query
+     * @return the number of matching members
+     */
+    public long count(EnrollmentQuery query) {
+        return match(query).getLongCardinality();
+    }
+
+    /**
+     * Finds the IDs of the members matching a query, in ascending order, after a cursor.
+     *
+     * @param query the query
+     * @param after the cursor; only IDs greater than this are returned
+     * @param limit the maximum number of IDs to return
+     * @return ascending list of member IDs
+     */
+    public List<Long> findIds(EnrollmentQuery query, long after, int limit) {
+        RoaringBitmap matches = match(query);
+        if (after >= 0) {
+            matches.remove(0L, Math.min(after + 1, MAX_ID_RANGE_END));
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+        var iterator = matches.getIntIterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(iterator.next()));
+        }
+        return ids;
+    }
+
+    /** Evaluates a query into a new bitmap the caller owns. */
+    private RoaringBitmap match(EnrollmentQuery query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = (query.type() == null ? all : byType.get(query.type())).clone();
+            if (query.group() != null) {
+                result.and(byGroup.getOrDefault(query.group(), new RoaringBitmap()));
+            }
+            for (Long courseId : query.allOf()) {
+                result.and(course(courseId));
+            }
+            if (Boolean.FALSE.equals(query.anyOf().isEmpty())) {
+                result.and(RoaringBitmap.or(query.anyOf().stream().map(this::course).iterator()));
+            }
+            for (Long courseId : query.noneOf()) {
+                result.andNot(course(courseId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Reads every member and enrollment through cursors and indexes them. */
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            try (Stream<MemberRow> rows = memberRepository.streamAllRows()) {
+                rows.forEach(row -> addLocked(toInt(row.id()), row.type(), row.group()));
+            }
+            try (Stream<MemberCourseId> enrollments = memberRepository.streamAllCourseIds()) {
+                enrollments.forEach(enrollment ->
+                        byCourse.computeIfAbsent(enrollment.courseId(), id -> new RoaringBitmap())
+                                .add(toInt(enrollment.memberId())));
+            }
+            runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(List<MemberDto> members) {
+        lock.writeLock().lock();
+        try {
+            for (MemberDto member : members) {
+                int id = toInt(member.getId());
+                removeLocked(id);
+                addLocked(id, member.getType(), member.getGroup());
+                if (member.isAssignedToCourses()) {
+                    member.getCourseIds().forEach(courseId ->
+                            byCourse.computeIfAbsent(courseId, key -> new RoaringBitmap()).add(id));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(int id, MemberType type, String group) {
+        all.add(id);
+        byType.get(type).add(id);
+        byGroup.computeIfAbsent(group, key -> new RoaringBitmap()).add(id);
+    }
+
+    /** Clears a member from every bitmap, dropping group and course bitmaps left empty. */
+    private void removeLocked(int id) {
+        if (Boolean.FALSE.equals(all.checkedRemove(id))) {
+            return;
+        }
+        byType.values().forEach(bitmap -> bitmap.remove(id));
+        byGroup.values().removeIf(bitmap -> bitmap.checkedRemove(id) && bitmap.isEmpty());
+        byCourse.values().removeIf(bitmap -> bitmap.checkedRemove(id) && bitmap.isEmpty());
+    }
+
+    /** Switches dense bitmap containers to run-length encoding where that is smaller. */
+    private void runOptimize() {
+        all.runOptimize();
+        byType.values().forEach(RoaringBitmap::runOptimize);
+        byGroup.values().forEach(RoaringBitmap::runOptimize);
+        byCourse.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    private RoaringBitmap course(Long courseId) {
+        return byCourse.getOrDefault(courseId, new RoaringBitmap());
+    }
+
+    private static int toInt(Long memberId) {
+        return Math.toIntExact(memberId);
+    }
+
+    /** Runs the update once the current transaction commits, or now if there is none. */
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
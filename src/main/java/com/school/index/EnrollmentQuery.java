@@ -0,0 +1,30 @@
+package com.school.index;
+
+import com.school.enums.MemberType;
+
+import java.util.Set;
+
+/**
+ * A boolean query over course enrollments, answered by the {@link EnrollmentIndex}.
+ * <p>
+ * A member matches if it is enrolled in every course of {@code allOf}, in at least one course of
+ * {@code anyOf} (when not empty) and in no course of {@code noneOf}, and has the given type and
+ * group when those are set. A query with no conditions matches every member.
+ *
+ * @param allOf  the courses a member must all be enrolled in
+ * @param anyOf  the courses a member must be enrolled in at least one of, or empty for no such condition
+ * @param noneOf the courses a member must not be enrolled in
+ * @param type   the member type, or {@code null} for any type
+ * @param group  the member group, or {@code null} for any group
+ */
+public record EnrollmentQuery(Set<Long> allOf, Set<Long> anyOf, Set<Long> noneOf, MemberType type, String group) {
+
+    /**
+     * Treats missing course sets as empty.
+     */
+    public EnrollmentQuery {
+        allOf = allOf == null ? Set.of() : allOf;
+        anyOf = anyOf == null ? Set.of() : anyOf;
+        noneOf = noneOf == null ? Set.of() : noneOf;
+    }
+}
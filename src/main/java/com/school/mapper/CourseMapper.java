@@ -21,21 +21,23 @@ public interface CourseMapper {
     CourseDto toCourseDto(Course course);
 
     /**
-     * Converts a course DTO to an entity. Member associations are ignored.
+     * Converts a course DTO to an entity. Member associations and the version are ignored.
      *
      * @param courseDto the course DTO
      * @return the course entity
      */
     @Mapping(target = "members", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Course toCourseEntity(CourseDto courseDto);
 
     /**
-     * Updates an existing course entity from a DTO. ID and member associations are ignored.
+     * Updates an existing course entity from a DTO. ID, member associations and the version are ignored.
      *
      * @param courseDto    the source DTO
      * @param course the target entity to update
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "members", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateCourseEntity(CourseDto courseDto, @MappingTarget Course course);
 }
@@ -31,24 +31,26 @@ public interface MemberMapper {
     MemberDto toMemberDto(Member member);
 
     /**
-     * Converts a member DTO to an entity. Course associations are ignored
-     * and must be set separately.
+     * Converts a member DTO to an entity. The version is ignored; course associations are
+     * ignored and must be set separately.
      *
      * @param memberDto the member DTO
      * @return the member entity
      */
     @Mapping(target = "courses", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Member toMemberEntity(MemberDto memberDto);
 
     /**
-     * Updates an existing member entity from a DTO. ID and course associations
-     * are ignored and must be handled separately.
+     * Updates an existing member entity from a DTO. ID and version are ignored; course
+     * associations are ignored and must be handled separately.
      *
      * @param memberDto    the source DTO
      * @param member the target entity to update
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "courses", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateMemberEntity(MemberDto memberDto, @MappingTarget Member member);
 
     /**
@@ -0,0 +1,10 @@
+package com.school.repository;
+
+/**
+ * Number of members enrolled in one course, as read by a {@code GROUP BY} query.
+ *
+ * @param courseId the course ID
+ * @param count    the number of enrolled members
+ */
+public record CourseEnrollmentCount(Long courseId, Long count) {
+}
@@ -2,18 +2,115 @@ package com.school.repository;
 
 import com.school.entity.Course;
 import com.school.enums.CourseType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Spring Data JPA repository for {@link Course} entities.
+ * <p>
+ * Courses live in the second-level cache, so {@link #findById(Object)} is served from memory once
+ * a course has been loaded. The lookups overridden here are marked cacheable: their results are
+ * kept in the query cache as course IDs, resolved through the entity cache, and invalidated
+ * whenever the {@code courses} table is written.
  */
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
     /**
-     * Counts courses by their type.
+     * Checks whether a course exists, from the query cache when the ID was checked before.
+     *
+     * @param id the course ID
+     * @return whether the course exists
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    boolean existsById(Long id);
+
+    /**
+     * Finds the courses with the given IDs, from the query cache when the same IDs were requested before.
+     *
+     * @param ids the course IDs
+     * @return the courses found
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Course> findAllById(Iterable<Long> ids);
+
+    /**
+     * Finds all courses, from the query cache until the next course write.
+     *
+     * @return all courses
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Course> findAll();
+
+    /**
+     * Counts courses of a type within an ID range, so a full recount can be split into chunks.
      *
      * @param type the course type
-     * @return the number of courses matching the type
+     * @param from the lowest ID to count (inclusive)
+     * @param to   the highest ID to count (inclusive)
+     * @return the number of courses matching the type within the ID range
+     */
+    long countByTypeAndIdBetween(CourseType type, Long from, Long to);
+
+    /**
+     * Finds the highest course ID.
+     *
+     * @return the highest ID, or {@code null} if there are no courses
+     */
+    @Query("SELECT MAX(c.id) FROM Course c")
+    Long findMaxId();
+
+    /**
+     * Finds which of the given course IDs exist, in a single query.
+     *
+     * @param ids the course IDs to check
+     * @return the subset of IDs that exist
+     */
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Finds a page of courses with IDs greater than the cursor, ordered by ID.
+     *
+     * @param after the cursor; only courses with a greater ID are returned
+     * @param limit the maximum number of courses to return
+     * @return ascending list of courses
+     */
+    List<Course> findByIdGreaterThanOrderById(Long after, Limit limit);
+
+    /**
+     * Counts the members enrolled in each course, including courses nobody is enrolled in.
+     *
+     * @return one count per course, ordered by course ID
+     */
+    @Query("""
+            SELECT new com.school.repository.CourseEnrollmentCount(c.id, COUNT(m))
+            FROM Course c
+            LEFT JOIN c.members m
+            GROUP BY c.id
+            ORDER BY c.id
+            """)
+    List<CourseEnrollmentCount> countEnrollmentsByCourse();
+
+    /**
+     * Streams all courses through a forward-only cursor. Must be consumed inside a
+     * transaction and closed after use.
+     *
+     * @return stream of all courses, ordered by ID
      */
-    Long countByType(CourseType type);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    Stream<Course> streamAll();
 }
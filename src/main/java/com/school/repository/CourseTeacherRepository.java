@@ -0,0 +1,42 @@
+package com.school.repository;
+
+import com.school.entity.CourseTeacher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link CourseTeacher} assignments.
+ */
+public interface CourseTeacherRepository extends JpaRepository<CourseTeacher, Long> {
+
+    /**
+     * Finds which of the given courses already have a teacher other than the excluded one,
+     * in a single query.
+     *
+     * @param courseIds       the course IDs to check
+     * @param currentMemberId the member ID to exclude from the check, or null when creating
+     * @return the taken course IDs, ascending
+     */
+    @Query("""
+            SELECT ct.courseId
+            FROM CourseTeacher ct
+            WHERE ct.courseId IN :courseIds
+              AND (:currentMemberId IS NULL OR ct.teacher.id <> :currentMemberId)
+            ORDER BY ct.courseId
+            """)
+    List<Long> findTakenCourseIds(Collection<Long> courseIds, Long currentMemberId);
+
+    /**
+     * Removes all course assignments of a teacher.
+     *
+     * @param memberId the teacher's member ID
+     * @return the number of removed assignments
+     */
+    @Modifying
+    @Query("DELETE FROM CourseTeacher ct WHERE ct.teacher.id = :memberId")
+    int deleteByTeacherId(Long memberId);
+}
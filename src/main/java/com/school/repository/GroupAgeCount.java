@@ -0,0 +1,11 @@
+package com.school.repository;
+
+/**
+ * Number of members of one group within one age bucket, as read by a {@code GROUP BY} query.
+ *
+ * @param group   the member group
+ * @param ageFrom the lowest age of the bucket
+ * @param count   the number of members
+ */
+public record GroupAgeCount(String group, Integer ageFrom, Long count) {
+}
@@ -0,0 +1,10 @@
+package com.school.repository;
+
+/**
+ * One course enrollment of a member, as read from the {@code member_courses} join table.
+ *
+ * @param memberId the member ID
+ * @param courseId the course ID
+ */
+public record MemberCourseId(Long memberId, Long courseId) {
+}
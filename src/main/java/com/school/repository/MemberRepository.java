@@ -2,20 +2,53 @@ package com.school.repository;
 
 import com.school.entity.Member;
 import com.school.enums.MemberType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Spring Data JPA repository for {@link Member} entities.
  * <p>
  * Provides custom query methods for filtering members by type, group, course, and age.
+ * List and report queries are projections read in two phases: they return one {@link MemberRow}
+ * per member, and the members' enrollments are then loaded with
+ * {@link #findCourseIdsByMemberIdIn(Collection)} and attached with
+ * {@link MemberRow#toMemberDtos(List, List)}. Rows transferred thus grow with members plus
+ * enrollments rather than with their product. Keyset page queries return IDs in ascending order,
+ * starting after a cursor ID, and are resolved via {@link #findRowsByIdIn(Collection)}.
+ * Stream queries read rows through a forward-only cursor ordered by ID; they must be consumed
+ * inside a transaction and closed after use.
  */
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
+    /** JDBC fetch size used by the stream queries. */
+    String STREAM_FETCH_SIZE = "500";
+
+    /** Width in years of the age buckets counted by {@link #countByGroupAndAgeBucket()}. */
+    int AGE_BUCKET_WIDTH = 10;
+
+    /** Lowest age of a member's age bucket; integer division rounds the age down to the bucket. */
+    String AGE_BUCKET = "m.age / " + AGE_BUCKET_WIDTH + " * " + AGE_BUCKET_WIDTH;
+
+    /**
+     * Select clause of the projection queries. Course filters join after it; since they match a
+     * single course, each member still yields one row.
+     */
+    String ROW_SELECT = """
+            SELECT new com.school.repository.MemberRow(m.id, m.name, m.age, m.group, m.type)
+            FROM Member m
+            """;
+
     /**
      * Finds a member by ID with courses eagerly loaded.
      *
@@ -26,131 +59,351 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findWithCoursesById(Long id);
 
     /**
-     * Counts members by their type.
+     * Finds the version of a member, without loading it.
+     *
+     * @param id the member ID
+     * @return the member's version, if the member exists
+     */
+    @Query("SELECT m.version FROM Member m WHERE m.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Counts members of a type within an ID range, so a full recount can be split into chunks.
      *
      * @param type the member type
-     * @return the number of members matching the type
+     * @param from the lowest ID to count (inclusive)
+     * @param to   the highest ID to count (inclusive)
+     * @return the number of members matching the type within the ID range
      */
-    long countByType(MemberType type);
+    long countByTypeAndIdBetween(MemberType type, Long from, Long to);
 
     /**
-     * Finds all members of a given type.
+     * Finds the highest member ID.
+     *
+     * @return the highest ID, or {@code null} if there are no members
+     */
+    @Query("SELECT MAX(m.id) FROM Member m")
+    Long findMaxId();
+
+    /**
+     * Finds all members of a given type, as rows.
      *
      * @param type the member type
-     * @return list of matching members
+     * @return matching member rows, ordered by member ID
      */
-    @EntityGraph(attributePaths = "courses")
-    List<Member> findByType(MemberType type);
+    @Query(ROW_SELECT + """
+            WHERE m.type = :type
+            ORDER BY m.id
+            """)
+    List<MemberRow> findRowsByType(MemberType type);
 
     /**
-     * Finds members of a given type enrolled in a specific course.
+     * Finds the course enrollments of the given members, one pair per enrollment.
      *
-     * @param type     the member type
-     * @param courseId the course ID
-     * @return list of matching members
+     * @param memberIds the member IDs
+     * @return the members' enrollments, in no particular order
      */
-    @EntityGraph(attributePaths = "courses")
     @Query("""
-            SELECT m
+            SELECT new com.school.repository.MemberCourseId(m.id, c.id)
             FROM Member m
             JOIN m.courses c
-            WHERE m.type = :type
-              AND c.id = :courseId
+            WHERE m.id IN :memberIds
             """)
-    List<Member> findByTypeAndCoursesId(
-            MemberType type,
-            Long courseId);
+    List<MemberCourseId> findCourseIdsByMemberIdIn(Collection<Long> memberIds);
 
     /**
-     * Checks if a teacher other than the excluded one is assigned to a specific course.
+     * Finds members of a given type enrolled in a specific course, as rows.
      *
-     * @param courseId        the course ID
-     * @param currentMemberId the member ID to exclude from the check, or null when creating
-     * @return true if another teacher is assigned
+     * @param type     the member type
+     * @param courseId the course ID
+     * @return matching member rows, ordered by member ID
      */
-    @Query("""
-            SELECT COUNT(m) > 0
-            FROM Member m
+    @Query(ROW_SELECT + """
             JOIN m.courses c
-            WHERE m.type = 'TEACHER'
+            WHERE m.type = :type
               AND c.id = :courseId
-              AND (:currentMemberId IS NULL OR m.id <> :currentMemberId)
+            ORDER BY m.id
             """)
-    boolean courseHasAnotherTeacher(Long courseId, Long currentMemberId);
+    List<MemberRow> findRowsByTypeAndCoursesId(MemberType type, Long courseId);
 
     /**
-     * Finds all members belonging to a specific group.
+     * Finds members belonging to a specific group, as rows.
      *
      * @param group the group name
-     * @return list of members in the group
+     * @return member rows in the group, ordered by member ID
      */
-    @EntityGraph(attributePaths = "courses")
-    List<Member> findByGroup(String group);
+    @Query(ROW_SELECT + """
+            WHERE m.group = :group
+            ORDER BY m.id
+            """)
+    List<MemberRow> findRowsByGroup(String group);
 
     /**
-     * Finds members by types, group, and course enrollment.
+     * Finds members by types, group, and course enrollment, as rows.
      *
      * @param types    the member types to include
      * @param group    the group name
      * @param courseId the course ID
-     * @return list of matching members
+     * @return matching member rows, ordered by member ID
      */
-    @EntityGraph(attributePaths = "courses")
-    @Query("""
-            SELECT m
-            FROM Member m
+    @Query(ROW_SELECT + """
             JOIN m.courses c
             WHERE m.type IN :types
               AND m.group = :group
               AND c.id = :courseId
+            ORDER BY m.id
             """)
-    List<Member> findByTypesAndGroupAndCoursesId(
+    List<MemberRow> findRowsByTypesAndGroupAndCoursesId(
             List<MemberType> types,
             String group,
             Long courseId);
 
     /**
-     * Finds members by type, group, and course enrollment.
+     * Finds members by type, group, and course enrollment, as rows.
      *
      * @param type     the member type
      * @param group    the group name
      * @param courseId the course ID
-     * @return list of matching members
+     * @return matching member rows, ordered by member ID
      */
-    @EntityGraph(attributePaths = "courses")
-    @Query("""
-            SELECT m
-            FROM Member m
+    @Query(ROW_SELECT + """
             JOIN m.courses c
             WHERE m.type = :type
               AND m.group = :group
               AND c.id = :courseId
+            ORDER BY m.id
             """)
-    List<Member> findByTypeAndGroupAndCoursesId(
+    List<MemberRow> findRowsByTypeAndGroupAndCoursesId(
             MemberType type,
             String group,
             Long courseId);
 
     /**
      * Finds members by type with age greater than or equal to the specified value,
-     * enrolled in a course.
+     * enrolled in a course, as rows.
      *
      * @param type     the member type
      * @param age      the minimum age (inclusive)
      * @param courseId the course ID
-     * @return list of matching members
+     * @return matching member rows, ordered by member ID
+     */
+    @Query(ROW_SELECT + """
+            JOIN m.courses c
+            WHERE m.type = :type
+              AND m.age >= :age
+              AND c.id = :courseId
+            ORDER BY m.id
+            """)
+    List<MemberRow> findRowsByTypeAndAgeGreaterThanAndCoursesId(
+            MemberType type,
+            Integer age,
+            Long courseId);
+
+    /**
+     * Finds members by ID, as rows.
+     *
+     * @param ids the member IDs
+     * @return matching member rows, ordered by member ID
+     */
+    @Query(ROW_SELECT + """
+            WHERE m.id IN :ids
+            ORDER BY m.id
+            """)
+    List<MemberRow> findRowsByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds a page of member IDs of a given type.
+     *
+     * @param type  the member type
+     * @param after the cursor; only IDs greater than this are returned
+     * @param limit the maximum number of IDs to return
+     * @return ascending list of member IDs
      */
-    @EntityGraph(attributePaths = "courses")
     @Query("""
-            SELECT m
+            SELECT m.id
+            FROM Member m
+            WHERE m.type = :type
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<Long> findIdsByType(MemberType type, Long after, Limit limit);
+
+    /**
+     * Finds a page of IDs of members of a given type enrolled in a specific course.
+     *
+     * @param type     the member type
+     * @param courseId the course ID
+     * @param after    the cursor; only IDs greater than this are returned
+     * @param limit    the maximum number of IDs to return
+     * @return ascending list of member IDs
+     */
+    @Query("""
+            SELECT m.id
+            FROM Member m
+            JOIN m.courses c
+            WHERE m.type = :type
+              AND c.id = :courseId
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<Long> findIdsByTypeAndCoursesId(
+            MemberType type,
+            Long courseId,
+            Long after,
+            Limit limit);
+
+    /**
+     * Finds a page of IDs of members belonging to a specific group.
+     *
+     * @param group the group name
+     * @param after the cursor; only IDs greater than this are returned
+     * @param limit the maximum number of IDs to return
+     * @return ascending list of member IDs
+     */
+    @Query("""
+            SELECT m.id
+            FROM Member m
+            WHERE m.group = :group
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<Long> findIdsByGroup(String group, Long after, Limit limit);
+
+    /**
+     * Finds a page of IDs of members by type with age greater than or equal to the specified
+     * value, enrolled in a course.
+     *
+     * @param type     the member type
+     * @param age      the minimum age (inclusive)
+     * @param courseId the course ID
+     * @param after    the cursor; only IDs greater than this are returned
+     * @param limit    the maximum number of IDs to return
+     * @return ascending list of member IDs
+     */
+    @Query("""
+            SELECT m.id
             FROM Member m
             JOIN m.courses c
             WHERE m.type = :type
               AND m.age >= :age
               AND c.id = :courseId
+              AND m.id > :after
+            ORDER BY m.id
             """)
-    List<Member> findByTypeAndAgeGreaterThanAndCoursesId(
+    List<Long> findIdsByTypeAndAgeGreaterThanAndCoursesId(
+            MemberType type,
+            Integer age,
+            Long courseId,
+            Long after,
+            Limit limit);
+
+    /**
+     * Streams all members of a given type, as rows.
+     *
+     * @param type the member type
+     * @return stream of matching member rows, ordered by member ID
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + """
+            WHERE m.type = :type
+            ORDER BY m.id
+            """)
+    Stream<MemberRow> streamRowsByType(MemberType type);
+
+    /**
+     * Streams all members as rows through a forward-only cursor.
+     *
+     * @return stream of all member rows, ordered by member ID
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + """
+            ORDER BY m.id
+            """)
+    Stream<MemberRow> streamAllRows();
+
+    /**
+     * Streams every course enrollment through a forward-only cursor.
+     *
+     * @return stream of all enrollments, in no particular order
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("""
+            SELECT new com.school.repository.MemberCourseId(m.id, c.id)
+            FROM Member m
+            JOIN m.courses c
+            """)
+    Stream<MemberCourseId> streamAllCourseIds();
+
+    /**
+     * Streams members of a given type enrolled in a specific course, as rows.
+     *
+     * @param type     the member type
+     * @param courseId the course ID
+     * @return stream of matching member rows, ordered by member ID
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + """
+            JOIN m.courses c
+            WHERE m.type = :type
+              AND c.id = :courseId
+            ORDER BY m.id
+            """)
+    Stream<MemberRow> streamRowsByTypeAndCoursesId(MemberType type, Long courseId);
+
+    /**
+     * Streams members belonging to a specific group, as rows.
+     *
+     * @param group the group name
+     * @return stream of member rows in the group, ordered by member ID
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + """
+            WHERE m.group = :group
+            ORDER BY m.id
+            """)
+    Stream<MemberRow> streamRowsByGroup(String group);
+
+    /**
+     * Streams members by type with age greater than or equal to the specified value,
+     * enrolled in a course, as rows.
+     *
+     * @param type     the member type
+     * @param age      the minimum age (inclusive)
+     * @param courseId the course ID
+     * @return stream of matching member rows, ordered by member ID
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(ROW_SELECT + """
+            JOIN m.courses c
+            WHERE m.type = :type
+              AND m.age >= :age
+              AND c.id = :courseId
+            ORDER BY m.id
+            """)
+    Stream<MemberRow> streamRowsByTypeAndAgeGreaterThanAndCoursesId(
             MemberType type,
             Integer age,
             Long courseId);
+
+    /**
+     * Counts members per type and group. Reads only the {@code (group_id, type, id)} index.
+     *
+     * @return one count per type and group that has members
+     */
+    @Query("""
+            SELECT new com.school.repository.MemberTypeGroupCount(m.type, m.group, COUNT(m))
+            FROM Member m
+            GROUP BY m.type, m.group
+            """)
+    List<MemberTypeGroupCount> countByTypeAndGroup();
+
+    /**
+     * Counts members per group and age bucket of {@value #AGE_BUCKET_WIDTH} years.
+     *
+     * @return one count per group and bucket that has members; {@code ageFrom} is the bucket's lowest age
+     */
+    @Query("SELECT new com.school.repository.GroupAgeCount(m.group, " + AGE_BUCKET + ", COUNT(m))"
+            + " FROM Member m"
+            + " GROUP BY m.group, " + AGE_BUCKET)
+    List<GroupAgeCount> countByGroupAndAgeBucket();
 }
@@ -0,0 +1,54 @@
+package com.school.repository;
+
+import com.school.dto.MemberDto;
+import com.school.enums.MemberType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One row of a member projection query: the member's own columns, without its courses.
+ * <p>
+ * Projection queries select these instead of {@code Member} entities, so reads skip entity
+ * hydration, dirty-check snapshots and persistence-context bookkeeping. Course enrollments are
+ * loaded in a second query as {@link MemberCourseId} pairs and attached with
+ * {@link #toMemberDtos(List, List)}, so each member is transferred once however many courses it has.
+ *
+ * @param id    the member ID
+ * @param name  the member name
+ * @param age   the member age
+ * @param group the member group
+ * @param type  the member type
+ */
+public record MemberRow(Long id, String name, Integer age, String group, MemberType type) {
+
+    /**
+     * Attaches course IDs to member rows.
+     *
+     * @param rows      the member rows
+     * @param courseIds the enrollments of those members; members without any get an empty set
+     * @return one DTO per row, in row order
+     */
+    public static List<MemberDto> toMemberDtos(List<MemberRow> rows, List<MemberCourseId> courseIds) {
+        Map<Long, Set<Long>> courseIdsByMember = new HashMap<>();
+        courseIds.forEach(pair -> courseIdsByMember
+                .computeIfAbsent(pair.memberId(), memberId -> new HashSet<>())
+                .add(pair.courseId()));
+        var members = new ArrayList<MemberDto>(rows.size());
+        for (MemberRow row : rows) {
+            members.add(MemberDto.builder()
+                    .id(row.id())
+                    .name(row.name())
+                    .age(row.age())
+                    .group(row.group())
+                    .type(row.type())
+                    .courseIds(courseIdsByMember.getOrDefault(row.id(), new HashSet<>()))
+                    .build());
+        }
+        return members;
+    }
+}
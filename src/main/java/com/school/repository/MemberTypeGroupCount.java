@@ -0,0 +1,13 @@
+package com.school.repository;
+
+import com.school.enums.MemberType;
+
+/**
+ * Number of members of one type in one group, as read by a {@code GROUP BY} query.
+ *
+ * @param type  the member type
+ * @param group the member group
+ * @param count the number of members
+ */
+public record MemberTypeGroupCount(MemberType type, String group, Long count) {
+}
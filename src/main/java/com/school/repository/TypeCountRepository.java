@@ -0,0 +1,23 @@
+package com.school.repository;
+
+import com.school.entity.TypeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Spring Data JPA repository for {@link TypeCount} entities.
+ */
+public interface TypeCountRepository extends JpaRepository<TypeCount, String> {
+
+    /**
+     * Atomically adds to a count in the database, without reading it first.
+     *
+     * @param id    the count ID
+     * @param delta the amount to add; negative to subtract
+     * @return the number of updated rows (0 if the count does not exist)
+     */
+    @Modifying
+    @Query("UPDATE TypeCount t SET t.count = t.count + :delta WHERE t.id = :id")
+    int addToCount(String id, long delta);
+}
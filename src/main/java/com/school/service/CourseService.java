@@ -1,17 +1,34 @@
 package com.school.service;
 
+import com.school.cache.ModifiesTables;
+import com.school.cache.ReportCacheable;
+import com.school.config.MetricsConfig;
 import com.school.dto.CountDto;
 import com.school.dto.CourseDto;
+import com.school.dto.CursorPageDto;
+import com.school.dto.MultiGetDto;
 import com.school.entity.Course;
 import com.school.enums.CourseType;
+import com.school.exception.PreconditionFailedException;
 import com.school.exception.ResourceNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import com.school.mapper.CourseMapper;
 import com.school.repository.CourseRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.school.cache.TrackedTable.COURSES;
+import static com.school.cache.TrackedTable.MEMBER_COURSES;
 
 /**
  * Service layer for course management.
@@ -22,20 +39,34 @@ import java.util.List;
 @Slf4j
 @Service
 @Transactional
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class CourseService {
 
+    /** Multiplier of the listing fingerprint; odd, so changing any single version changes the result. */
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+
+    /** Courses persisted between flushes in bulk imports; matches {@code hibernate.jdbc.batch_size}. */
+    private static final int BULK_FLUSH_SIZE = 50;
+
     private final CourseRepository courseRepository;
     private final CourseMapper courseMapper;
+    private final TypeCountService typeCountService;
+    private final EntityManager entityManager;
 
     /**
      * Constructs the service with the required dependencies.
      *
      * @param courseRepository the course repository
      * @param courseMapper     the course mapper
+     * @param typeCountService the per-type course counts
+     * @param entityManager    the entity manager (for detaching streamed courses)
      */
-    public CourseService(CourseRepository courseRepository, CourseMapper courseMapper) {
+    public CourseService(CourseRepository courseRepository, CourseMapper courseMapper,
+                         TypeCountService typeCountService, EntityManager entityManager) {
         this.courseRepository = courseRepository;
         this.courseMapper = courseMapper;
+        this.typeCountService = typeCountService;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -44,13 +75,42 @@ public class CourseService {
      * @param courseDto the course data
      * @return the created course
      */
+    @ModifiesTables(COURSES)
     public CourseDto createCourse(CourseDto courseDto) {
         Course course = courseMapper.toCourseEntity(courseDto);
         Course savedCourse = courseRepository.save(course);
+        typeCountService.add(savedCourse.getType(), 1);
         log.info("Created course with id: {}", savedCourse.getId());
         return courseMapper.toCourseDto(savedCourse);
     }
 
+    /**
+     * Creates courses in bulk within a single transaction. Inserts are written as JDBC batches,
+     * flushing and clearing the persistence context every {@value #BULK_FLUSH_SIZE} courses.
+     *
+     * @param courseDtos the courses to create
+     * @return the created courses, in request order
+     */
+    @ModifiesTables(COURSES)
+    public List<CourseDto> createCourses(List<CourseDto> courseDtos) {
+        List<CourseDto> created = new ArrayList<>(courseDtos.size());
+        List<Course> pending = new ArrayList<>(BULK_FLUSH_SIZE);
+        for (CourseDto courseDto : courseDtos) {
+            Course course = courseMapper.toCourseEntity(courseDto);
+            entityManager.persist(course);
+            pending.add(course);
+            if (pending.size() == BULK_FLUSH_SIZE) {
+                flushAndClear(pending, created);
+            }
+        }
+        flushAndClear(pending, created);
+        courseDtos.stream()
+                .collect(Collectors.groupingBy(CourseDto::getType, Collectors.counting()))
+                .forEach(typeCountService::add);
+        log.info("Created {} courses in bulk", created.size());
+        return created;
+    }
+
     /**
      * Retrieves a course by its ID.
      *
@@ -63,6 +123,51 @@ public class CourseService {
         return courseMapper.toCourseDto(findCourseById(id));
     }
 
+    /**
+     * Retrieves several courses by ID with a single {@code IN} query.
+     *
+     * @param ids the course IDs, possibly with repeats
+     * @return the courses found, in request order, and the IDs that were not found
+     */
+    @Transactional(readOnly = true)
+    public MultiGetDto<CourseDto> getCoursesByIds(List<Long> ids) {
+        List<CourseDto> found = courseRepository.findAllById(new ArrayList<>(new LinkedHashSet<>(ids)))
+                .stream()
+                .map(courseMapper::toCourseDto)
+                .toList();
+        return MultiGetDto.inRequestOrder(ids, found, CourseDto::getId);
+    }
+
+    /**
+     * Returns the current version of a course, for answering conditional requests without
+     * mapping it. Served from the second-level cache when the course is cached.
+     *
+     * @param id the course ID
+     * @return the course version
+     * @throws ResourceNotFoundException if the course is not found
+     */
+    @Transactional(readOnly = true)
+    public long getCourseVersion(Long id) {
+        return findCourseById(id).getVersion();
+    }
+
+    /**
+     * Returns a fingerprint of the IDs and versions of all courses, in listing order. It changes
+     * whenever a course is created, updated or deleted, so it serves as the version of the full
+     * listing. Both the listing query and the courses come from Hibernate's caches when warm.
+     *
+     * @return the fingerprint of the course listing
+     */
+    @Transactional(readOnly = true)
+    public long getAllCoursesVersion() {
+        long fingerprint = 1;
+        for (Course course : courseRepository.findAll()) {
+            fingerprint = fingerprint * FINGERPRINT_PRIME + course.getId();
+            fingerprint = fingerprint * FINGERPRINT_PRIME + course.getVersion();
+        }
+        return fingerprint;
+    }
+
     /**
      * Retrieves all courses.
      *
@@ -77,17 +182,64 @@ public class CourseService {
     }
 
     /**
-     * Updates an existing course.
+     * Streams all courses to the consumer, one at a time, detaching each after use.
+     *
+     * @param consumer receives each course in ID order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllCourses(Consumer<CourseDto> consumer) {
+        try (Stream<Course> courses = courseRepository.streamAll()) {
+            courses.forEach(course -> {
+                consumer.accept(courseMapper.toCourseDto(course));
+                entityManager.detach(course);
+            });
+        }
+    }
+
+    /**
+     * Retrieves one page of courses ordered by ID, starting after the given cursor.
+     *
+     * @param after the cursor; only courses with a greater ID are returned
+     * @param limit the page size
+     * @return the page with the cursor of the next page, if any
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getCoursesPage(Long after, int limit) {
+        List<Course> courses = courseRepository.findByIdGreaterThanOrderById(after, Limit.of(limit + 1));
+        boolean hasMore = courses.size() > limit;
+        List<CourseDto> items = (hasMore ? courses.subList(0, limit) : courses)
+                .stream()
+                .map(courseMapper::toCourseDto)
+                .toList();
+        return new CursorPageDto<>(items, hasMore ? items.get(limit - 1).getId() : null);
+    }
+
+    /**
+     * Updates an existing course. The update is flushed right away, so the returned course
+     * carries its new version; a concurrent update of the same course fails the flush with an
+     * optimistic locking failure instead of being overwritten.
      *
-     * @param id  the course ID
-     * @param courseDto the updated course data
+     * @param id              the course ID
+     * @param courseDto       the updated course data
+     * @param expectedVersion the version the caller last read, or {@code null} to update any version
      * @return the updated course
-     * @throws ResourceNotFoundException if the course is not found
+     * @throws ResourceNotFoundException   if the course is not found
+     * @throws PreconditionFailedException if the course no longer has the expected version
      */
-    public CourseDto updateCourse(Long id, CourseDto courseDto) {
+    @ModifiesTables(COURSES)
+    public CourseDto updateCourse(Long id, CourseDto courseDto, Long expectedVersion) {
         Course course = findCourseById(id);
+        if (expectedVersion != null && Boolean.FALSE.equals(expectedVersion.equals(course.getVersion()))) {
+            throw new PreconditionFailedException(String.format(
+                    "Course with id: %d has version %d, not %d", id, course.getVersion(), expectedVersion));
+        }
+        CourseType previousType = course.getType();
         courseMapper.updateCourseEntity(courseDto, course);
-        Course savedCourse = courseRepository.save(course);
+        Course savedCourse = courseRepository.saveAndFlush(course);
+        if (savedCourse.getType() != previousType) {
+            typeCountService.add(previousType, -1);
+            typeCountService.add(savedCourse.getType(), 1);
+        }
         log.info("Updated course with id: {}", savedCourse.getId());
         return courseMapper.toCourseDto(savedCourse);
     }
@@ -98,23 +250,31 @@ public class CourseService {
      * @param id the course ID
      * @throws ResourceNotFoundException if the course is not found
      */
+    @ModifiesTables({COURSES, MEMBER_COURSES})
     public void deleteCourse(Long id) {
-        if (Boolean.FALSE.equals(courseRepository.existsById(id))) {
-            throw new ResourceNotFoundException(
-                    String.format("Course not found with id: %d", id));
-        }
-        courseRepository.deleteById(id);
+        Course course = findCourseById(id);
+        courseRepository.delete(course);
+        typeCountService.add(course.getType(), -1);
     }
 
     /**
-     * Counts courses by type.
+     * Counts courses by type, reading the maintained count rather than scanning courses.
      *
      * @param type the course type
      * @return the count wrapped in a DTO
      */
     @Transactional(readOnly = true)
+    @ReportCacheable(COURSES)
     public CountDto countCoursesByType(CourseType type) {
-        return new CountDto(courseRepository.countByType(type));
+        return new CountDto(typeCountService.countOf(type));
+    }
+
+    /** Flushes pending bulk inserts as JDBC batches, maps them to DTOs and empties the persistence context. */
+    private void flushAndClear(List<Course> pending, List<CourseDto> created) {
+        entityManager.flush();
+        pending.forEach(course -> created.add(courseMapper.toCourseDto(course)));
+        pending.clear();
+        entityManager.clear();
     }
 
     /** Finds a course by ID or throws {@link ResourceNotFoundException}. */
@@ -1,53 +1,118 @@
 package com.school.service;
 
+import com.school.cache.GroupDictionary;
+import com.school.cache.ModifiesTables;
+import com.school.cache.ReportCacheable;
+import com.school.config.MetricsConfig;
 import com.school.dto.CountDto;
+import com.school.dto.CursorPageDto;
 import com.school.dto.GroupCourseReportDto;
 import com.school.dto.MemberDto;
+import com.school.dto.MultiGetDto;
 import com.school.entity.Course;
+import com.school.entity.CourseTeacher;
 import com.school.entity.Member;
 import com.school.enums.MemberType;
 import com.school.exception.DuplicateTeacherException;
+import com.school.exception.PreconditionFailedException;
 import com.school.exception.ResourceNotFoundException;
+import com.school.index.EnrollmentIndex;
+import com.school.index.EnrollmentQuery;
 import com.school.mapper.MemberMapper;
 import com.school.repository.CourseRepository;
+import com.school.repository.CourseTeacherRepository;
 import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.school.cache.TrackedTable.COURSES;
+import static com.school.cache.TrackedTable.MEMBERS;
+import static com.school.cache.TrackedTable.MEMBER_COURSES;
 
 /**
  * Service layer for member management.
  * <p>
  * Handles business logic for creating, retrieving, updating, deleting members,
  * as well as reporting queries such as counting, filtering by type/group/course/age.
+ * List, report and page reads use projection queries ({@link MemberRow}) rather than loading
+ * managed entities, and fetch course enrollments in a second query per batch of members instead
+ * of joining them into the member rows. Writes look up the member's group key in the
+ * {@link GroupDictionary} first, since members store the group's key rather than its name. The
+ * controller registers new groups before the transaction starts, so here the lookup is a cache
+ * hit; callers that bypass the controller get the group registered here instead.
  */
 @Slf4j
 @Service
 @Transactional
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class MemberService {
 
+    /** Members persisted between flushes in bulk imports; matches {@code hibernate.jdbc.batch_size}. */
+    private static final int BULK_FLUSH_SIZE = 50;
+
+    /**
+     * Members whose enrollments are loaded per query. Bounds the {@code IN} list and the rows a
+     * stream buffers before handing them on.
+     */
+    private static final int COURSE_ID_BATCH_SIZE = 500;
+
+    /** SQLSTATE of a unique or primary key violation. */
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final MemberRepository memberRepository;
     private final CourseRepository courseRepository;
+    private final CourseTeacherRepository courseTeacherRepository;
     private final MemberMapper memberMapper;
+    private final TypeCountService typeCountService;
+    private final GroupDictionary groupDictionary;
+    private final EnrollmentIndex enrollmentIndex;
+    private final EntityManager entityManager;
 
     /**
      * Constructs the service with the required dependencies.
      *
      * @param memberRepository the member repository
      * @param courseRepository the course repository (for course resolution and validation)
+     * @param courseTeacherRepository the teacher assignments backing the one-teacher-per-course rule
      * @param memberMapper     the member mapper
+     * @param typeCountService the per-type member counts
+     * @param groupDictionary  the group keys members are stored with
+     * @param enrollmentIndex  the in-memory index kept in step with member writes
+     * @param entityManager    the entity manager (for bulk inserts and course references)
      */
     public MemberService(MemberRepository memberRepository,
                          CourseRepository courseRepository,
-                         MemberMapper memberMapper) {
+                         CourseTeacherRepository courseTeacherRepository,
+                         MemberMapper memberMapper,
+                         TypeCountService typeCountService,
+                         GroupDictionary groupDictionary,
+                         EnrollmentIndex enrollmentIndex,
+                         EntityManager entityManager) {
         this.memberRepository = memberRepository;
         this.courseRepository = courseRepository;
+        this.courseTeacherRepository = courseTeacherRepository;
         this.memberMapper = memberMapper;
+        this.typeCountService = typeCountService;
+        this.groupDictionary = groupDictionary;
+        this.enrollmentIndex = enrollmentIndex;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -56,16 +121,66 @@ public class MemberService {
      * @param memberDto the member data including course IDs
      * @return the created member
      * @throws ResourceNotFoundException if any course ID is not found
+     * @throws DuplicateTeacherException if a teacher is already assigned to any of the courses
      */
+    @ModifiesTables({MEMBERS, MEMBER_COURSES})
     public MemberDto createMember(MemberDto memberDto) {
         if (memberDto.isTeacher() && memberDto.isAssignedToCourses()) {
             validateOneTeacherPerCourse(memberDto.getCourseIds(), null);
         }
+        groupDictionary.register(memberDto.getGroup());
         Member member = memberMapper.toMemberEntity(memberDto);
         member.setCourses(memberDto.isAssignedToCourses() ? resolveCourses(memberDto.getCourseIds()) : new HashSet<>());
         Member savedMember = memberRepository.save(member);
+        assignTeacher(savedMember, memberDto);
+        typeCountService.add(savedMember.getType(), 1);
         log.info("Created member with id: {}", savedMember.getId());
-        return memberMapper.toMemberDto(savedMember);
+        MemberDto created = memberMapper.toMemberDto(savedMember);
+        enrollmentIndex.putAfterCommit(List.of(created));
+        return created;
+    }
+
+    /**
+     * Creates members in bulk within a single transaction.
+     * <p>
+     * Course references and the one-teacher-per-course rule are validated for the whole batch
+     * up front with set-based queries. Members and their course enrollments are then written as
+     * JDBC batches, flushing and clearing the persistence context every {@value #BULK_FLUSH_SIZE}
+     * members.
+     *
+     * @param memberDtos the members to create
+     * @return the created members, in request order
+     * @throws ResourceNotFoundException if any course ID is not found
+     * @throws DuplicateTeacherException if a course would end up with more than one teacher
+     */
+    @ModifiesTables({MEMBERS, MEMBER_COURSES})
+    public List<MemberDto> createMembers(List<MemberDto> memberDtos) {
+        Set<Long> courseIds = memberDtos.stream()
+                .filter(MemberDto::isAssignedToCourses)
+                .flatMap(memberDto -> memberDto.getCourseIds().stream())
+                .collect(Collectors.toSet());
+        validateCoursesExist(courseIds);
+        Set<Long> teacherCourseIds = validateOneTeacherPerCourse(memberDtos);
+        memberDtos.stream().map(MemberDto::getGroup).distinct().forEach(groupDictionary::register);
+        List<MemberDto> created = new ArrayList<>(memberDtos.size());
+        List<Member> pending = new ArrayList<>(BULK_FLUSH_SIZE);
+        for (MemberDto memberDto : memberDtos) {
+            Member member = memberMapper.toMemberEntity(memberDto);
+            member.setCourses(memberDto.isAssignedToCourses() ? courseReferences(memberDto.getCourseIds()) : new HashSet<>());
+            entityManager.persist(member);
+            persistTeacherAssignments(member, memberDto);
+            pending.add(member);
+            if (pending.size() == BULK_FLUSH_SIZE) {
+                flushAndClear(pending, created, teacherCourseIds);
+            }
+        }
+        flushAndClear(pending, created, teacherCourseIds);
+        memberDtos.stream()
+                .collect(Collectors.groupingBy(MemberDto::getType, Collectors.counting()))
+                .forEach(typeCountService::add);
+        enrollmentIndex.putAfterCommit(created);
+        log.info("Created {} members in bulk", created.size());
+        return created;
     }
 
     /**
@@ -80,6 +195,34 @@ public class MemberService {
         return memberMapper.toMemberDto(findMemberWithCoursesById(id));
     }
 
+    /**
+     * Retrieves several members by ID: one {@code IN} query for the members and one for their
+     * enrollments.
+     *
+     * @param ids the member IDs, possibly with repeats
+     * @return the members found, in request order, and the IDs that were not found
+     */
+    @Transactional(readOnly = true)
+    public MultiGetDto<MemberDto> getMembersByIds(List<Long> ids) {
+        List<MemberRow> rows = memberRepository.findRowsByIdIn(new ArrayList<>(new LinkedHashSet<>(ids)));
+        return MultiGetDto.inRequestOrder(ids, withCourseIds(rows), MemberDto::getId);
+    }
+
+    /**
+     * Returns the current version of a member, for answering conditional requests without
+     * loading or mapping it.
+     *
+     * @param id the member ID
+     * @return the member version
+     * @throws ResourceNotFoundException if the member is not found
+     */
+    @Transactional(readOnly = true)
+    public long getMemberVersion(Long id) {
+        return memberRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Member not found with id: %d", id)));
+    }
+
     /**
      * Retrieves all members of a given type.
      *
@@ -88,30 +231,72 @@ public class MemberService {
      */
     @Transactional(readOnly = true)
     public List<MemberDto> getMembersByType(MemberType type) {
-        return memberRepository.findByType(type)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        return withCourseIds(memberRepository.findRowsByType(type));
+    }
+
+    /**
+     * Streams all members of a given type to the consumer, one at a time.
+     *
+     * @param type     the member type
+     * @param consumer receives each member in ID order
+     */
+    @Transactional(readOnly = true)
+    public void streamMembersByType(MemberType type, Consumer<MemberDto> consumer) {
+        forEachWithCourseIds(memberRepository.streamRowsByType(type), consumer);
+    }
+
+    /**
+     * Retrieves one page of members of a given type, ordered by ID.
+     *
+     * @param type  the member type
+     * @param after the cursor; only members with a greater ID are returned
+     * @param limit the page size
+     * @return the page with the cursor of the next page, if any
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<MemberDto> getMembersByTypePage(MemberType type, Long after, int limit) {
+        return toMemberPage(memberRepository.findIdsByType(type, after, Limit.of(limit + 1)), limit);
     }
 
     /**
-     * Updates an existing member and its course enrollments.
+     * Updates an existing member and its course enrollments. The update is flushed right away,
+     * so the returned member carries its new version; a concurrent update of the same member
+     * fails the flush with an optimistic locking failure instead of being overwritten.
      *
-     * @param id        the member ID
-     * @param memberDto the updated member data
+     * @param id              the member ID
+     * @param memberDto       the updated member data
+     * @param expectedVersion the version the caller last read, or {@code null} to update any version
      * @return the updated member
-     * @throws ResourceNotFoundException if the member or any course ID is not found
+     * @throws ResourceNotFoundException   if the member or any course ID is not found
+     * @throws PreconditionFailedException if the member no longer has the expected version
      */
-    public MemberDto updateMember(Long id, MemberDto memberDto) {
+    @ModifiesTables({MEMBERS, MEMBER_COURSES})
+    public MemberDto updateMember(Long id, MemberDto memberDto, Long expectedVersion) {
         Member member = findMemberById(id);
+        if (expectedVersion != null && Boolean.FALSE.equals(expectedVersion.equals(member.getVersion()))) {
+            throw new PreconditionFailedException(String.format(
+                    "Member with id: %d has version %d, not %d", id, member.getVersion(), expectedVersion));
+        }
         if (memberDto.isTeacher() && memberDto.isAssignedToCourses()) {
             validateOneTeacherPerCourse(memberDto.getCourseIds(), id);
         }
+        MemberType previousType = member.getType();
+        groupDictionary.register(memberDto.getGroup());
         memberMapper.updateMemberEntity(memberDto, member);
         member.setCourses(memberDto.isAssignedToCourses() ? resolveCourses(memberDto.getCourseIds()) : new HashSet<>());
-        Member savedMember = memberRepository.save(member);
+        Member savedMember = memberRepository.saveAndFlush(member);
+        if (previousType == MemberType.TEACHER) {
+            courseTeacherRepository.deleteByTeacherId(id);
+        }
+        assignTeacher(savedMember, memberDto);
+        if (savedMember.getType() != previousType) {
+            typeCountService.add(previousType, -1);
+            typeCountService.add(savedMember.getType(), 1);
+        }
         log.info("Updated member with id: {}", savedMember.getId());
-        return memberMapper.toMemberDto(savedMember);
+        MemberDto updated = memberMapper.toMemberDto(savedMember);
+        enrollmentIndex.putAfterCommit(List.of(updated));
+        return updated;
     }
 
     /**
@@ -120,23 +305,54 @@ public class MemberService {
      * @param id the member ID
      * @throws ResourceNotFoundException if the member is not found
      */
+    @ModifiesTables({MEMBERS, MEMBER_COURSES})
     public void deleteMember(Long id) {
-        if (Boolean.FALSE.equals(memberRepository.existsById(id))) {
-            throw new ResourceNotFoundException(
-                    String.format("Member not found with id: %d", id));
+        Member member = findMemberById(id);
+        if (member.getType() == MemberType.TEACHER) {
+            courseTeacherRepository.deleteByTeacherId(id);
         }
-        memberRepository.deleteById(id);
+        memberRepository.delete(member);
+        typeCountService.add(member.getType(), -1);
+        enrollmentIndex.removeAfterCommit(id);
+    }
+
+    /**
+     * Counts the members matching a boolean query over course enrollments, type and group,
+     * answered from the in-memory {@link EnrollmentIndex}.
+     *
+     * @param query the query
+     * @return the count wrapped in a DTO
+     */
+    @Transactional(readOnly = true)
+    public CountDto countByEnrollmentQuery(EnrollmentQuery query) {
+        return new CountDto(enrollmentIndex.count(query));
     }
 
     /**
-     * Counts members by type.
+     * Finds one page of members matching a boolean query over course enrollments, type and group,
+     * ordered by ID. The matching IDs come from the in-memory {@link EnrollmentIndex}; only the
+     * page's members are read from the database.
+     *
+     * @param query the query
+     * @param after the cursor; only members with a greater ID are returned
+     * @param limit the page size
+     * @return the page with the cursor of the next page, if any
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<MemberDto> findByEnrollmentQueryPage(EnrollmentQuery query, Long after, int limit) {
+        return toMemberPage(enrollmentIndex.findIds(query, after, limit + 1), limit);
+    }
+
+    /**
+     * Counts members by type, reading the maintained count rather than scanning members.
      *
      * @param type the member type
      * @return the count wrapped in a DTO
      */
     @Transactional(readOnly = true)
+    @ReportCacheable(MEMBERS)
     public CountDto countMembersByType(MemberType type) {
-        return new CountDto(memberRepository.countByType(type));
+        return new CountDto(typeCountService.countOf(type));
     }
 
     /**
@@ -148,12 +364,44 @@ public class MemberService {
      * @throws ResourceNotFoundException if the course is not found
      */
     @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
     public List<MemberDto> findMembersByTypeAndCourseId(MemberType type, Long courseId) {
         validateCourseExists(courseId);
-        return memberRepository.findByTypeAndCoursesId(type, courseId)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        return withCourseIds(memberRepository.findRowsByTypeAndCoursesId(type, courseId));
+    }
+
+    /**
+     * Streams members of a given type enrolled in a specific course to the consumer.
+     *
+     * @param type     the member type
+     * @param courseId the course ID
+     * @param consumer receives each member in ID order
+     * @throws ResourceNotFoundException if the course is not found
+     */
+    @Transactional(readOnly = true)
+    public void streamMembersByTypeAndCourseId(
+            MemberType type, Long courseId, Consumer<MemberDto> consumer) {
+        validateCourseExists(courseId);
+        forEachWithCourseIds(memberRepository.streamRowsByTypeAndCoursesId(type, courseId), consumer);
+    }
+
+    /**
+     * Finds one page of members of a given type enrolled in a specific course, ordered by ID.
+     *
+     * @param type     the member type
+     * @param courseId the course ID
+     * @param after    the cursor; only members with a greater ID are returned
+     * @param limit    the page size
+     * @return the page with the cursor of the next page, if any
+     * @throws ResourceNotFoundException if the course is not found
+     */
+    @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
+    public CursorPageDto<MemberDto> findMembersByTypeAndCourseIdPage(
+            MemberType type, Long courseId, Long after, int limit) {
+        validateCourseExists(courseId);
+        return toMemberPage(memberRepository.findIdsByTypeAndCoursesId(
+                type, courseId, after, Limit.of(limit + 1)), limit);
     }
 
     /**
@@ -163,11 +411,34 @@ public class MemberService {
      * @return list of members in the group
      */
     @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, MEMBER_COURSES})
     public List<MemberDto> findMembersByGroup(String group) {
-        return memberRepository.findByGroup(group)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        return withCourseIds(memberRepository.findRowsByGroup(group));
+    }
+
+    /**
+     * Streams all members belonging to a specific group to the consumer.
+     *
+     * @param group    the group name
+     * @param consumer receives each member in ID order
+     */
+    @Transactional(readOnly = true)
+    public void streamMembersByGroup(String group, Consumer<MemberDto> consumer) {
+        forEachWithCourseIds(memberRepository.streamRowsByGroup(group), consumer);
+    }
+
+    /**
+     * Finds one page of members belonging to a specific group, ordered by ID.
+     *
+     * @param group the group name
+     * @param after the cursor; only members with a greater ID are returned
+     * @param limit the page size
+     * @return the page with the cursor of the next page, if any
+     */
+    @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, MEMBER_COURSES})
+    public CursorPageDto<MemberDto> findMembersByGroupPage(String group, Long after, int limit) {
+        return toMemberPage(memberRepository.findIdsByGroup(group, after, Limit.of(limit + 1)), limit);
     }
 
     /**
@@ -181,10 +452,7 @@ public class MemberService {
     @Transactional(readOnly = true)
     public List<MemberDto> findMembersByTypeAndGroupAndCourseId(
             MemberType type, String group, Long courseId) {
-        return memberRepository.findByTypeAndGroupAndCoursesId(type, group, courseId)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        return withCourseIds(memberRepository.findRowsByTypeAndGroupAndCoursesId(type, group, courseId));
     }
 
     /**
@@ -197,13 +465,11 @@ public class MemberService {
      * @throws ResourceNotFoundException if the course is not found
      */
     @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
     public GroupCourseReportDto findMembersByGroupAndCourseId(String group, Long courseId) {
         validateCourseExists(courseId);
-        List<MemberDto> allMembers = memberRepository.findByTypesAndGroupAndCoursesId(
-                        List.of(MemberType.STUDENT, MemberType.TEACHER), group, courseId)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        List<MemberDto> allMembers = withCourseIds(memberRepository.findRowsByTypesAndGroupAndCoursesId(
+                List.of(MemberType.STUDENT, MemberType.TEACHER), group, courseId));
         if (allMembers.isEmpty()) {
             throw new ResourceNotFoundException(
                     String.format("No members found for group: %s and course id: %d", group, courseId));
@@ -225,29 +491,184 @@ public class MemberService {
      * @throws ResourceNotFoundException if the course is not found
      */
     @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
     public List<MemberDto> findMembersByTypeAndAgeGreaterThanAndCourseId(
             MemberType type, Integer age, Long courseId) {
         validateCourseExists(courseId);
-        return memberRepository.findByTypeAndAgeGreaterThanAndCoursesId(type, age, courseId)
-                .stream()
-                .map(memberMapper::toMemberDto)
-                .toList();
+        return withCourseIds(memberRepository.findRowsByTypeAndAgeGreaterThanAndCoursesId(type, age, courseId));
     }
 
     /**
-     * Ensures each course has at most one teacher.
+     * Streams members by type with age greater than the specified value, enrolled in a course,
+     * to the consumer.
+     *
+     * @param type     the member type
+     * @param age      the minimum age (inclusive)
+     * @param courseId the course ID
+     * @param consumer receives each member in ID order
+     * @throws ResourceNotFoundException if the course is not found
+     */
+    @Transactional(readOnly = true)
+    public void streamMembersByTypeAndAgeGreaterThanAndCourseId(
+            MemberType type, Integer age, Long courseId, Consumer<MemberDto> consumer) {
+        validateCourseExists(courseId);
+        forEachWithCourseIds(memberRepository.streamRowsByTypeAndAgeGreaterThanAndCoursesId(
+                type, age, courseId), consumer);
+    }
+
+    /**
+     * Finds one page of members by type with age greater than the specified value,
+     * enrolled in a course, ordered by ID.
+     *
+     * @param type     the member type
+     * @param age      the minimum age (inclusive)
+     * @param courseId the course ID
+     * @param after    the cursor; only members with a greater ID are returned
+     * @param limit    the page size
+     * @return the page with the cursor of the next page, if any
+     * @throws ResourceNotFoundException if the course is not found
+     */
+    @Transactional(readOnly = true)
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
+    public CursorPageDto<MemberDto> findMembersByTypeAndAgeGreaterThanAndCourseIdPage(
+            MemberType type, Integer age, Long courseId, Long after, int limit) {
+        validateCourseExists(courseId);
+        return toMemberPage(memberRepository.findIdsByTypeAndAgeGreaterThanAndCoursesId(
+                type, age, courseId, after, Limit.of(limit + 1)), limit);
+    }
+
+    /**
+     * Ensures each course has at most one teacher, checking all courses in a single query.
      * On create, {@code currentMemberId} is {@code null} so any existing teacher is a conflict.
      * On update, the member's own ID is passed so it doesn't conflict with itself.
+     * This only gives a precise error up front; the {@code course_teachers} primary key is what
+     * rejects concurrent assignments, see {@link #flushTeacherAssignments(Set)}.
      */
     private void validateOneTeacherPerCourse(Set<Long> courseIds, Long currentMemberId) {
-        for (Long courseId : courseIds) {
-            boolean teacherExists = memberRepository.courseHasAnotherTeacher(
-                    courseId, currentMemberId);
-            if (teacherExists) {
-                throw new DuplicateTeacherException(
-                        String.format("A teacher is already assigned to course with id: %d", courseId));
+        courseTeacherRepository.findTakenCourseIds(courseIds, currentMemberId).stream()
+                .findFirst()
+                .ifPresent(courseId -> {
+                    throw new DuplicateTeacherException(
+                            String.format("A teacher is already assigned to course with id: %d", courseId));
+                });
+    }
+
+    /** Records a teacher's course assignments and writes them immediately, so conflicts surface here. */
+    private void assignTeacher(Member member, MemberDto memberDto) {
+        if (persistTeacherAssignments(member, memberDto)) {
+            flushTeacherAssignments(memberDto.getCourseIds());
+        }
+    }
+
+    /** Queues a teacher's course assignments for the next flush; returns whether there were any. */
+    private boolean persistTeacherAssignments(Member member, MemberDto memberDto) {
+        if (memberDto.isTeacher() && memberDto.isAssignedToCourses()) {
+            memberDto.getCourseIds().forEach(courseId -> entityManager.persist(new CourseTeacher(courseId, member)));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Flushes pending writes through the repository, so driver errors arrive translated. A unique
+     * violation can only come from the {@code course_teachers} primary key: another request assigned
+     * a teacher to one of the courses after our check passed.
+     */
+    private void flushTeacherAssignments(Set<Long> courseIds) {
+        try {
+            courseTeacherRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getMostSpecificCause() instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                throw new DuplicateTeacherException(String.format(
+                        "A teacher is already assigned to one of the courses with ids: %s", new TreeSet<>(courseIds)));
             }
+            throw ex;
+        }
+    }
+
+    /**
+     * Second phase of a list read: loads the enrollments of the given members with one
+     * {@code IN} query per {@value #COURSE_ID_BATCH_SIZE} members and attaches them.
+     */
+    private List<MemberDto> withCourseIds(List<MemberRow> rows) {
+        List<MemberDto> members = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += COURSE_ID_BATCH_SIZE) {
+            int to = Math.min(from + COURSE_ID_BATCH_SIZE, rows.size());
+            members.addAll(withCourseIdsBatch(rows.subList(from, to)));
         }
+        return members;
+    }
+
+    /**
+     * Streaming variant of {@link #withCourseIds(List)}: buffers {@value #COURSE_ID_BATCH_SIZE}
+     * rows at a time, loads their enrollments and hands the members to the consumer. Closes the stream.
+     */
+    private void forEachWithCourseIds(Stream<MemberRow> rows, Consumer<MemberDto> consumer) {
+        List<MemberRow> batch = new ArrayList<>(COURSE_ID_BATCH_SIZE);
+        try (rows) {
+            rows.forEach(row -> {
+                batch.add(row);
+                if (batch.size() == COURSE_ID_BATCH_SIZE) {
+                    withCourseIdsBatch(batch).forEach(consumer);
+                    batch.clear();
+                }
+            });
+        }
+        withCourseIdsBatch(batch).forEach(consumer);
+    }
+
+    /** Loads the enrollments of one batch of members with a single query and attaches them. */
+    private List<MemberDto> withCourseIdsBatch(List<MemberRow> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        List<Long> memberIds = batch.stream().map(MemberRow::id).toList();
+        return MemberRow.toMemberDtos(batch, memberRepository.findCourseIdsByMemberIdIn(memberIds));
+    }
+
+    /**
+     * Loads the members of one page as projection rows with their enrollments. {@code ids} holds
+     * up to {@code limit + 1} IDs; the extra one only signals that another page follows.
+     */
+    private CursorPageDto<MemberDto> toMemberPage(List<Long> ids, int limit) {
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+        List<MemberDto> items = pageIds.isEmpty() ? List.of()
+                : withCourseIds(memberRepository.findRowsByIdIn(pageIds));
+        return new CursorPageDto<>(items, hasMore ? pageIds.get(limit - 1) : null);
+    }
+
+    /**
+     * Bulk variant of {@link #validateOneTeacherPerCourse(Set, Long)}: rejects a course claimed by
+     * two teachers in the batch, then checks all claimed courses against existing teachers at once.
+     *
+     * @return the course IDs claimed by teachers in the batch
+     */
+    private Set<Long> validateOneTeacherPerCourse(List<MemberDto> memberDtos) {
+        Set<Long> teacherCourseIds = new HashSet<>();
+        for (MemberDto memberDto : memberDtos) {
+            if (memberDto.isTeacher() && memberDto.isAssignedToCourses()) {
+                for (Long courseId : memberDto.getCourseIds()) {
+                    if (Boolean.FALSE.equals(teacherCourseIds.add(courseId))) {
+                        throw new DuplicateTeacherException(
+                                String.format("A teacher is already assigned to course with id: %d", courseId));
+                    }
+                }
+            }
+        }
+        if (Boolean.FALSE.equals(teacherCourseIds.isEmpty())) {
+            validateOneTeacherPerCourse(teacherCourseIds, null);
+        }
+        return teacherCourseIds;
+    }
+
+    /** Flushes pending bulk inserts as JDBC batches, maps them to DTOs and empties the persistence context. */
+    private void flushAndClear(List<Member> pending, List<MemberDto> created, Set<Long> teacherCourseIds) {
+        flushTeacherAssignments(teacherCourseIds);
+        pending.forEach(member -> created.add(memberMapper.toMemberDto(member)));
+        pending.clear();
+        entityManager.clear();
     }
 
     /** Finds a member by ID or throws {@link ResourceNotFoundException}. */
@@ -276,13 +697,34 @@ public class MemberService {
     private Set<Course> resolveCourses(Set<Long> courseIds) {
         Set<Course> courses = new HashSet<>(courseRepository.findAllById(courseIds));
         if (courses.size() != courseIds.size()) {
-            Set<Long> foundIds = courses.stream().map(Course::getId).collect(Collectors.toSet());
-            List<Long> missingIds = courseIds.stream()
-                    .filter(id -> Boolean.FALSE.equals(foundIds.contains(id)))
-                    .toList();
-            throw new ResourceNotFoundException(
-                    String.format("Courses not found with ids: %s", missingIds));
+            throwCoursesNotFound(courseIds, courses.stream().map(Course::getId).collect(Collectors.toSet()));
         }
         return courses;
     }
+
+    /** Validates that all course IDs exist with a single query or throws {@link ResourceNotFoundException}. */
+    private void validateCoursesExist(Set<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        Set<Long> foundIds = new HashSet<>(courseRepository.findExistingIds(courseIds));
+        if (foundIds.size() != courseIds.size()) {
+            throwCoursesNotFound(courseIds, foundIds);
+        }
+    }
+
+    private void throwCoursesNotFound(Set<Long> courseIds, Set<Long> foundIds) {
+        List<Long> missingIds = courseIds.stream()
+                .filter(id -> Boolean.FALSE.equals(foundIds.contains(id)))
+                .toList();
+        throw new ResourceNotFoundException(
+                String.format("Courses not found with ids: %s", missingIds));
+    }
+
+    /** Returns uninitialized references to already validated courses, without loading them. */
+    private Set<Course> courseReferences(Set<Long> courseIds) {
+        return courseIds.stream()
+                .map(id -> entityManager.getReference(Course.class, id))
+                .collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,89 @@
+package com.school.service;
+
+import com.school.cache.ReportCacheable;
+import com.school.config.MetricsConfig;
+import com.school.dto.StatsDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.CourseRepository;
+import com.school.repository.MemberRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.school.cache.TrackedTable.COURSES;
+import static com.school.cache.TrackedTable.MEMBERS;
+import static com.school.cache.TrackedTable.MEMBER_COURSES;
+
+/**
+ * Service layer for the statistics report.
+ * <p>
+ * Builds the whole report from two {@code GROUP BY} queries over members, one over enrollments
+ * and the maintained per-type course counts, instead of one request per type, course or group.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class StatsService {
+
+    private final MemberRepository memberRepository;
+    private final CourseRepository courseRepository;
+    private final TypeCountService typeCountService;
+
+    /**
+     * Constructs the service with the required dependencies.
+     *
+     * @param memberRepository the member repository
+     * @param courseRepository the course repository
+     * @param typeCountService the per-type course counts
+     */
+    public StatsService(MemberRepository memberRepository,
+                        CourseRepository courseRepository,
+                        TypeCountService typeCountService) {
+        this.memberRepository = memberRepository;
+        this.courseRepository = courseRepository;
+        this.typeCountService = typeCountService;
+    }
+
+    /**
+     * Returns the statistics report, read in one transaction so its counts agree with each other.
+     *
+     * @return the report
+     */
+    @ReportCacheable({MEMBERS, COURSES, MEMBER_COURSES})
+    public StatsDto getStats() {
+        Map<MemberType, Map<String, Long>> membersByTypeAndGroup = new EnumMap<>(MemberType.class);
+        for (MemberType type : MemberType.values()) {
+            membersByTypeAndGroup.put(type, new TreeMap<>());
+        }
+        memberRepository.countByTypeAndGroup().forEach(row ->
+                membersByTypeAndGroup.get(row.type()).put(row.group(), row.count()));
+
+        Map<CourseType, Long> coursesByType = new EnumMap<>(CourseType.class);
+        for (CourseType type : CourseType.values()) {
+            coursesByType.put(type, typeCountService.countOf(type));
+        }
+
+        Map<Long, Long> enrollmentsByCourse = new LinkedHashMap<>();
+        courseRepository.countEnrollmentsByCourse().forEach(row ->
+                enrollmentsByCourse.put(row.courseId(), row.count()));
+
+        Map<String, Map<Integer, Long>> ageBucketsByGroup = new TreeMap<>();
+        memberRepository.countByGroupAndAgeBucket().forEach(row -> ageBucketsByGroup
+                .computeIfAbsent(row.group(), group -> new TreeMap<>())
+                .put(row.ageFrom(), row.count()));
+
+        return StatsDto.builder()
+                .membersByTypeAndGroup(membersByTypeAndGroup)
+                .coursesByType(coursesByType)
+                .enrollmentsByCourse(enrollmentsByCourse)
+                .ageBucketsByGroup(ageBucketsByGroup)
+                .ageBucketWidth(MemberRepository.AGE_BUCKET_WIDTH)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.school.service;
+
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.CourseRepository;
+import com.school.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Background job that recounts members and courses by type and reports drift from the
+ * maintained counts in {@code type_counts}.
+ * <p>
+ * The recount walks the ID space in chunks of {@code school.type-counts.reconcile-chunk-size},
+ * each in its own short read, so it never holds a long scan open. A count that changes while it
+ * is being recounted is skipped for that run, since concurrent writes make the comparison
+ * meaningless. Drift is logged and published as the {@code type.counts.drift} gauge; it is not
+ * corrected automatically.
+ */
+@Slf4j
+@Component
+public class TypeCountReconciler {
+
+    private final MemberRepository memberRepository;
+    private final CourseRepository courseRepository;
+    private final TypeCountService typeCountService;
+    private final long chunkSize;
+    private final Map<String, AtomicLong> drift = new HashMap<>();
+
+    /**
+     * Constructs the reconciler with the required dependencies.
+     *
+     * @param memberRepository the member repository
+     * @param courseRepository the course repository
+     * @param typeCountService the maintained counts
+     * @param meterRegistry    the meter registry for the drift gauges
+     * @param chunkSize        the number of IDs recounted per query
+     */
+    public TypeCountReconciler(MemberRepository memberRepository,
+                               CourseRepository courseRepository,
+                               TypeCountService typeCountService,
+                               MeterRegistry meterRegistry,
+                               @Value("${school.type-counts.reconcile-chunk-size:10000}") long chunkSize) {
+        this.memberRepository = memberRepository;
+        this.courseRepository = courseRepository;
+        this.typeCountService = typeCountService;
+        this.chunkSize = chunkSize;
+        for (MemberType type : MemberType.values()) {
+            registerDriftGauge(meterRegistry, TypeCountService.key(type));
+        }
+        for (CourseType type : CourseType.values()) {
+            registerDriftGauge(meterRegistry, TypeCountService.key(type));
+        }
+    }
+
+    /**
+     * Recounts every member and course type and compares the result with the maintained counts.
+     */
+    @Scheduled(initialDelayString = "${school.type-counts.reconcile-interval:PT10M}",
+            fixedDelayString = "${school.type-counts.reconcile-interval:PT10M}")
+    public void reconcile() {
+        Long maxMemberId = memberRepository.findMaxId();
+        for (MemberType type : MemberType.values()) {
+            reconcile(TypeCountService.key(type), () -> typeCountService.countOf(type), maxMemberId,
+                    (from, to) -> memberRepository.countByTypeAndIdBetween(type, from, to));
+        }
+        Long maxCourseId = courseRepository.findMaxId();
+        for (CourseType type : CourseType.values()) {
+            reconcile(TypeCountService.key(type), () -> typeCountService.countOf(type), maxCourseId,
+                    (from, to) -> courseRepository.countByTypeAndIdBetween(type, from, to));
+        }
+    }
+
+    /**
+     * Returns the drift found for a count by the last run that could compare it.
+     *
+     * @param key the count ID, e.g. {@code members:STUDENT}
+     * @return the recounted value minus the maintained value
+     */
+    public long driftOf(String key) {
+        return drift.get(key).get();
+    }
+
+    private void reconcile(String key, LongSupplier storedCount, Long maxId, LongBinaryOperator countRange) {
+        long before = storedCount.getAsLong();
+        long actual = 0;
+        if (maxId != null) {
+            for (long from = 0; from <= maxId; from += chunkSize) {
+                actual += countRange.applyAsLong(from, from + chunkSize - 1);
+            }
+        }
+        long after = storedCount.getAsLong();
+        if (before != after) {
+            log.debug("Skipped reconciling {}: count changed during the recount", key);
+            return;
+        }
+        long difference = actual - after;
+        drift.get(key).set(difference);
+        if (difference != 0) {
+            log.warn("Type count drift for {}: stored {}, recounted {}", key, after, actual);
+        }
+    }
+
+    private void registerDriftGauge(MeterRegistry meterRegistry, String key) {
+        drift.put(key, meterRegistry.gauge("type.counts.drift", Tags.of("count", key), new AtomicLong()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.school.service;
+
+import com.school.entity.TypeCount;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.TypeCountRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service layer for the per-type member and course counts.
+ * <p>
+ * Writers call {@code add} inside their own transaction, so a count changes exactly when the
+ * rows it counts do. Reads are single-row primary-key lookups.
+ */
+@Service
+@Transactional
+public class TypeCountService {
+
+    private final TypeCountRepository typeCountRepository;
+
+    /**
+     * Constructs the service with the required dependencies.
+     *
+     * @param typeCountRepository the type count repository
+     */
+    public TypeCountService(TypeCountRepository typeCountRepository) {
+        this.typeCountRepository = typeCountRepository;
+    }
+
+    /**
+     * Returns the stored number of members of a type.
+     *
+     * @param type the member type
+     * @return the count
+     */
+    @Transactional(readOnly = true)
+    public long countOf(MemberType type) {
+        return countOf(key(type));
+    }
+
+    /**
+     * Returns the stored number of courses of a type.
+     *
+     * @param type the course type
+     * @return the count
+     */
+    @Transactional(readOnly = true)
+    public long countOf(CourseType type) {
+        return countOf(key(type));
+    }
+
+    /**
+     * Adds to the number of members of a type.
+     *
+     * @param type  the member type
+     * @param delta the amount to add; negative to subtract
+     */
+    public void add(MemberType type, long delta) {
+        add(key(type), delta);
+    }
+
+    /**
+     * Adds to the number of courses of a type.
+     *
+     * @param type  the course type
+     * @param delta the amount to add; negative to subtract
+     */
+    public void add(CourseType type, long delta) {
+        add(key(type), delta);
+    }
+
+    /**
+     * Returns the count ID for a member type.
+     *
+     * @param type the member type
+     * @return the ID, e.g. {@code members:STUDENT}
+     */
+    public static String key(MemberType type) {
+        return "members:" + type.name();
+    }
+
+    /**
+     * Returns the count ID for a course type.
+     *
+     * @param type the course type
+     * @return the ID, e.g. {@code courses:MAIN}
+     */
+    public static String key(CourseType type) {
+        return "courses:" + type.name();
+    }
+
+    private long countOf(String key) {
+        return typeCountRepository.findById(key)
+                .map(TypeCount::getCount)
+                .orElse(0L);
+    }
+
+    /** Rows are seeded by the migration for every type, so a missing row means the schema is behind the enums. */
+    private void add(String key, long delta) {
+        if (delta != 0 && typeCountRepository.addToCount(key, delta) == 0) {
+            throw new IllegalStateException(String.format("No type count row for: %s", key));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.school.web;
+
+import com.school.exception.PreconditionFailedException;
+
+/**
+ * Strong entity tags built from entity versions, and parsing of the conditional request headers
+ * that send them back.
+ * <p>
+ * A tag is the quoted version, e.g. {@code "3"}. {@code If-None-Match} is compared weakly, as
+ * RFC 9110 requires, so a {@code W/} prefix added by a proxy still matches. {@code If-Match}
+ * must carry a single strong tag or {@code *}.
+ */
+public final class ETags {
+
+    private static final String WILDCARD = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * Builds the tag of a version.
+     *
+     * @param version the entity version, or a fingerprint of several
+     * @return the quoted tag
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks whether an {@code If-None-Match} header matches the current tag, so that a GET can
+     * answer 304 Not Modified.
+     *
+     * @param ifNoneMatch the header value, or {@code null} if absent
+     * @param currentTag  the tag of the current representation
+     * @return whether the client already has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String currentTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(WILDCARD) || stripWeak(trimmed).equals(currentTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the version an {@code If-Match} header requires the resource to have.
+     *
+     * @param ifMatch the header value, or {@code null} if absent
+     * @return the required version, or {@code null} if any version will do (no header, or {@code *})
+     * @throws PreconditionFailedException if the header is not {@code *} or a single strong tag
+     *                                     of a version, so it cannot match any current tag
+     */
+    public static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals(WILDCARD)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // falls through: no current tag has this form
+            }
+        }
+        throw new PreconditionFailedException(String.format("If-Match does not match the current ETag: %s", tag));
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
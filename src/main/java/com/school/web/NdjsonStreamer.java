@@ -0,0 +1,79 @@
+package com.school.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes listings as newline-delimited JSON ({@code application/x-ndjson}).
+ * <p>
+ * Items are serialized straight to the response as the source produces them, so nothing
+ * is buffered beyond the current item. The first item is flushed immediately and the rest
+ * every {@value #FLUSH_INTERVAL} items. Nothing touches the response before the first item,
+ * so a source that fails first (a missing course, say) still gets its error status.
+ */
+@Component
+public class NdjsonStreamer {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final ObjectWriter writer;
+
+    /**
+     * Constructs the streamer with the application's object mapper.
+     *
+     * @param objectMapper the object mapper
+     */
+    public NdjsonStreamer(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Builds a streaming response from a source that pushes items into a sink.
+     * The source runs after the handler returns, on the async request thread.
+     *
+     * @param source called once with the sink that writes each item as one line
+     * @param <T>    the item type
+     * @return the streaming response
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            var generator = new JsonGenerator[1];
+            var written = new int[1];
+            try {
+                source.accept(item -> {
+                    try {
+                        if (generator[0] == null) {
+                            generator[0] = writer.createGenerator(out);
+                        }
+                        writer.writeValue(generator[0], item);
+                        generator[0].writeRaw('\n');
+                        if (written[0]++ % FLUSH_INTERVAL == 0) {
+                            generator[0].flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } finally {
+                if (generator[0] != null) {
+                    generator[0].close();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
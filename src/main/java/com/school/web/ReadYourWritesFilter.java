@@ -0,0 +1,88 @@
+package com.school.web;
+
+import com.school.datasource.PrimaryReads;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+
+/**
+ * Lets a client read its own writes although reads are served by a replica that may lag behind.
+ * <p>
+ * Every write response carries a {@value #HEADER} token, the time of the write in epoch
+ * milliseconds. A request that sends the token back within the configured window has its
+ * read-only transactions routed to the primary; older, missing or malformed tokens are ignored.
+ * Streamed ({@code application/x-ndjson}) responses read on another thread and always use the
+ * replica.
+ */
+@Component
+@EnableConfigurationProperties(ReadYourWritesProperties.class)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** Header carrying the read-your-writes token in both directions. */
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private final ReadYourWritesProperties properties;
+    private final Clock clock;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param properties the token configuration
+     */
+    @Autowired
+    public ReadYourWritesFilter(ReadYourWritesProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    ReadYourWritesFilter(ReadYourWritesProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isWrite(request.getMethod())) {
+            response.setHeader(HEADER, Long.toString(clock.millis()));
+            chain.doFilter(request, response);
+            return;
+        }
+        if (Boolean.FALSE.equals(isRecent(request.getHeader(HEADER)))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PrimaryReads.force();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PrimaryReads.clear();
+        }
+    }
+
+    private boolean isRecent(String token) {
+        if (token == null) {
+            return false;
+        }
+        try {
+            // Tokens a little in the future come from instances whose clock runs ahead of ours
+            long age = clock.millis() - Long.parseLong(token.trim());
+            return Math.abs(age) <= properties.window().toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method)
+                || HttpMethod.PATCH.matches(method) || HttpMethod.DELETE.matches(method);
+    }
+}
@@ -0,0 +1,16 @@
+package com.school.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the read-your-writes token handled by {@link ReadYourWritesFilter}.
+ *
+ * @param window how long after a write its token sends the client's reads to the primary;
+ *               should exceed the replica's worst replication lag
+ */
+@ConfigurationProperties("school.read-your-writes")
+public record ReadYourWritesProperties(@DefaultValue("5s") Duration window) {
+}
@@ -0,0 +1,79 @@
+package com.school.benchmark;
+
+import com.school.dto.MemberDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.MemberRepository;
+import com.school.service.CourseService;
+import com.school.service.MemberService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares import throughput of one-by-one member creation against the bulk path.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BulkImportBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_ROWS = 1_000;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void compareSingleAndBulkImport() {
+        var courseIds = Set.of(
+                courseService.createCourse(courseDto("Math", CourseType.MAIN)).getId(),
+                courseService.createCourse(courseDto("Art", CourseType.SECONDARY)).getId());
+
+        importOneByOne(students(WARMUP_ROWS, courseIds));
+        memberService.createMembers(students(WARMUP_ROWS, courseIds));
+
+        long single = importOneByOne(students(ROWS, courseIds));
+        long startBulk = System.nanoTime();
+        memberService.createMembers(students(ROWS, courseIds));
+        long bulk = System.nanoTime() - startBulk;
+
+        System.out.printf("single: %,.0f rows/s, bulk: %,.0f rows/s%n", rowsPerSecond(single), rowsPerSecond(bulk));
+        assertThat(memberRepository.count()).isEqualTo(2L * (WARMUP_ROWS + ROWS));
+    }
+
+    private long importOneByOne(List<MemberDto> dtos) {
+        long start = System.nanoTime();
+        dtos.forEach(memberService::createMember);
+        return System.nanoTime() - start;
+    }
+
+    private static List<MemberDto> students(int count, Set<Long> courseIds) {
+        var dtos = new ArrayList<MemberDto>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(memberDto("Student " + i, 18 + i % 10, "G" + i % 20, MemberType.STUDENT, courseIds));
+        }
+        return dtos;
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+}
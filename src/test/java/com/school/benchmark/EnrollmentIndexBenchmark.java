@@ -0,0 +1,78 @@
+package com.school.benchmark;
+
+import com.school.dto.MemberDto;
+import com.school.enums.MemberType;
+import com.school.index.EnrollmentIndex;
+import com.school.index.EnrollmentQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * Measures {@link EnrollmentIndex} queries over {@value #MEMBERS} members spread over
+ * {@value #GROUPS} groups, each enrolled in {@value #COURSES_PER_MEMBER} of {@value #COURSES} courses.
+ * The index is filled directly, without a database. Run with
+ * {@code mvn test -Pjmh -Djmh.include=EnrollmentIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentIndexBenchmark {
+
+    private static final int MEMBERS = 100_000;
+    private static final int GROUPS = 50;
+    private static final int COURSES = 50;
+    private static final int COURSES_PER_MEMBER = 3;
+
+    private final EnrollmentIndex enrollmentIndex = new EnrollmentIndex(null, null);
+
+    private final EnrollmentQuery groupAndTwoCoursesButNotThird =
+            new EnrollmentQuery(Set.of(1L, 2L), null, Set.of(3L), MemberType.STUDENT, "G0");
+    private final EnrollmentQuery anyOfFiveCourses =
+            new EnrollmentQuery(null, Set.of(1L, 2L, 3L, 4L, 5L), null, null, null);
+
+    @Setup
+    public void setUp() {
+        List<MemberDto> members = new ArrayList<>(MEMBERS);
+        for (long id = 1; id <= MEMBERS; id++) {
+            long firstCourse = id % COURSES;
+            var member = memberDto(id, "Student " + id, MemberType.STUDENT,
+                    Set.of(firstCourse + 1, (firstCourse + 1) % COURSES + 1, (firstCourse + 7) % COURSES + 1));
+            member.setGroup("G" + id % GROUPS);
+            members.add(member);
+        }
+        enrollmentIndex.putAfterCommit(members);
+    }
+
+    @Benchmark
+    public long countGroupAndTwoCoursesButNotThird() {
+        return enrollmentIndex.count(groupAndTwoCoursesButNotThird);
+    }
+
+    @Benchmark
+    public long countAnyOfFiveCourses() {
+        return enrollmentIndex.count(anyOfFiveCourses);
+    }
+
+    @Benchmark
+    public List<Long> firstPageOfAnyOfFiveCourses() {
+        return enrollmentIndex.findIds(anyOfFiveCourses, 0L, 100);
+    }
+}
@@ -0,0 +1,94 @@
+package com.school.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.school.dto.GroupCourseReportDto;
+import com.school.dto.MemberDto;
+import com.school.enums.MemberType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * Measures Jackson serialization of the member and group-course report payloads, using an
+ * {@code ObjectMapper} built with Spring's defaults, with and without the Blackbird module the
+ * application registers. The gzip case adds the cost of response compression on top.
+ * Run with {@code mvn test -Pjmh -Djmh.include=JsonBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int members;
+
+    private ObjectWriter writer;
+    private ObjectWriter blackbirdWriter;
+    private MemberDto member;
+    private GroupCourseReportDto report;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        blackbirdWriter = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build().writer();
+        member = withId(memberDto("Student", 20, "A1", MemberType.STUDENT, Set.of(1L, 2L, 3L)), 1L);
+
+        var reportMembers = new ArrayList<MemberDto>(members);
+        for (long id = 1; id <= members; id++) {
+            reportMembers.add(withId(memberDto("Student " + id, 20, "A1", MemberType.STUDENT, Set.of(1L, 2L)), id));
+        }
+        report = GroupCourseReportDto.builder().group("A1").courseId(1L).members(reportMembers).build();
+    }
+
+    @Benchmark
+    public byte[] memberDtoJson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(member);
+    }
+
+    @Benchmark
+    public byte[] groupCourseReport() throws JsonProcessingException {
+        return writer.writeValueAsBytes(report);
+    }
+
+    @Benchmark
+    public byte[] groupCourseReportBlackbird() throws JsonProcessingException {
+        return blackbirdWriter.writeValueAsBytes(report);
+    }
+
+    @Benchmark
+    public byte[] groupCourseReportBlackbirdGzip() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(bytes)) {
+            blackbirdWriter.writeValue(gzip, report);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MemberDto withId(MemberDto dto, Long id) {
+        dto.setId(id);
+        return dto;
+    }
+}
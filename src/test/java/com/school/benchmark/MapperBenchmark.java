@@ -0,0 +1,92 @@
+package com.school.benchmark;
+
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.entity.Course;
+import com.school.entity.Member;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.mapper.CourseMapper;
+import com.school.mapper.MemberMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.CourseFixture.courseEntity;
+
+/**
+ * Measures the MapStruct mappers in isolation, including the boxing done by
+ * {@link MemberMapper#coursesToIds(Set)}. Run with {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int courses;
+
+    private final MemberMapper memberMapper = Mappers.getMapper(MemberMapper.class);
+    private final CourseMapper courseMapper = Mappers.getMapper(CourseMapper.class);
+
+    private Member member;
+    private Course course;
+    private CourseDto courseDto;
+
+    @Setup
+    public void setUp() {
+        var memberCourses = new HashSet<Course>();
+        for (long id = 1; id <= courses; id++) {
+            memberCourses.add(courseEntity(1_000 + id));
+        }
+        member = new Member();
+        member.setId(1L);
+        member.setName("Student");
+        member.setAge(20);
+        member.setGroup("A1");
+        member.setType(MemberType.STUDENT);
+        member.setCourses(memberCourses);
+
+        course = courseEntity(1L);
+        course.setName("Math");
+        course.setType(CourseType.MAIN);
+        courseDto = courseDto("Math", CourseType.MAIN);
+    }
+
+    @Benchmark
+    public MemberDto toMemberDto() {
+        return memberMapper.toMemberDto(member);
+    }
+
+    @Benchmark
+    public Set<Long> coursesToIds() {
+        return memberMapper.coursesToIds(member.getCourses());
+    }
+
+    @Benchmark
+    public CourseDto toCourseDto() {
+        return courseMapper.toCourseDto(course);
+    }
+
+    @Benchmark
+    public Course toCourseEntity() {
+        return courseMapper.toCourseEntity(courseDto);
+    }
+}
@@ -0,0 +1,204 @@
+package com.school.benchmark;
+
+import com.school.CourseApplication;
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.entity.Member;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.mapper.MemberMapper;
+import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import com.school.service.CourseService;
+import com.school.service.MemberService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * Compares each member report read on the two-phase projection path ({@link MemberRow} rows, then
+ * one query for their enrollments) against the entity path it replaced (managed {@code Member}
+ * entities with their courses graph joined in, mapped by {@link MemberMapper}), against an
+ * in-memory H2 seeded with {@value #STUDENTS} students spread over {@value #GROUPS} groups and
+ * {@value #COURSES} courses, one teacher per course. Both run in a read-only transaction, as the service does.
+ * Run with {@code mvn test -Pjmh -Djmh.include=MemberQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberQueryBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int GROUPS = 50;
+    private static final int COURSES = 50;
+    private static final int SEED_BATCH = 5_000;
+
+    private static final String BY_TYPE_AND_COURSE = """
+            SELECT m FROM Member m JOIN m.courses c
+            WHERE m.type = :type AND c.id = :courseId
+            """;
+    private static final String BY_GROUP = """
+            SELECT m FROM Member m
+            WHERE m.group = :group
+            """;
+    private static final String BY_TYPES_AND_GROUP_AND_COURSE = """
+            SELECT m FROM Member m JOIN m.courses c
+            WHERE m.type IN :types AND m.group = :group AND c.id = :courseId
+            """;
+    private static final String BY_TYPE_AND_AGE_AND_COURSE = """
+            SELECT m FROM Member m JOIN m.courses c
+            WHERE m.type = :type AND m.age >= :age AND c.id = :courseId
+            """;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberMapper memberMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long courseId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CourseApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.com.school=WARN");
+        memberRepository = context.getBean(MemberRepository.class);
+        memberMapper = context.getBean(MemberMapper.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        var courseDtos = new ArrayList<CourseDto>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            courseDtos.add(courseDto("Course " + i, i % 2 == 0 ? CourseType.MAIN : CourseType.SECONDARY));
+        }
+        List<Long> courseIds = context.getBean(CourseService.class).createCourses(courseDtos).stream()
+                .map(CourseDto::getId)
+                .toList();
+        courseId = courseIds.get(0);
+
+        var memberService = context.getBean(MemberService.class);
+        var teachers = new ArrayList<MemberDto>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            teachers.add(memberDto("Teacher " + i, 40, "G" + i % GROUPS, MemberType.TEACHER, Set.of(courseIds.get(i))));
+        }
+        memberService.createMembers(teachers);
+        for (int from = 0; from < STUDENTS; from += SEED_BATCH) {
+            var students = new ArrayList<MemberDto>(SEED_BATCH);
+            for (int i = from; i < from + SEED_BATCH; i++) {
+                var courses = Set.of(courseIds.get(i % COURSES), courseIds.get((i + 1) % COURSES));
+                students.add(memberDto("Student " + i, 18 + i % 10, "G" + i % GROUPS, MemberType.STUDENT, courses));
+            }
+            memberService.createMembers(students);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypeAndCourseEntities() {
+        return entities(BY_TYPE_AND_COURSE, query -> query
+                .setParameter("type", MemberType.STUDENT)
+                .setParameter("courseId", courseId));
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypeAndCourseProjection() {
+        return projection(() -> memberRepository.findRowsByTypeAndCoursesId(MemberType.STUDENT, courseId));
+    }
+
+    @Benchmark
+    public List<MemberDto> byGroupEntities() {
+        return entities(BY_GROUP, query -> query.setParameter("group", "G0"));
+    }
+
+    @Benchmark
+    public List<MemberDto> byGroupProjection() {
+        return projection(() -> memberRepository.findRowsByGroup("G0"));
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypesAndGroupAndCourseEntities() {
+        return entities(BY_TYPES_AND_GROUP_AND_COURSE, query -> query
+                .setParameter("types", List.of(MemberType.STUDENT, MemberType.TEACHER))
+                .setParameter("group", "G0")
+                .setParameter("courseId", courseId));
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypesAndGroupAndCourseProjection() {
+        return projection(() -> memberRepository.findRowsByTypesAndGroupAndCoursesId(
+                List.of(MemberType.STUDENT, MemberType.TEACHER), "G0", courseId));
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypeAndAgeAndCourseEntities() {
+        return entities(BY_TYPE_AND_AGE_AND_COURSE, query -> query
+                .setParameter("type", MemberType.STUDENT)
+                .setParameter("age", 25)
+                .setParameter("courseId", courseId));
+    }
+
+    @Benchmark
+    public List<MemberDto> byTypeAndAgeAndCourseProjection() {
+        return projection(() -> memberRepository.findRowsByTypeAndAgeGreaterThanAndCoursesId(
+                MemberType.STUDENT, 25, courseId));
+    }
+
+    /** The projection path: member rows first, then the enrollments of all of them in one query. */
+    private List<MemberDto> projection(Supplier<List<MemberRow>> rows) {
+        return readOnly.execute(status -> {
+            List<MemberRow> members = rows.get();
+            List<Long> memberIds = members.stream().map(MemberRow::id).toList();
+            return MemberRow.toMemberDtos(members, memberRepository.findCourseIdsByMemberIdIn(memberIds));
+        });
+    }
+
+    /** The entity path the projections replaced: managed members with their courses graph, then mapped. */
+    private List<MemberDto> entities(String jpql, UnaryOperator<TypedQuery<Member>> parameters) {
+        return readOnly.execute(status -> {
+            var graph = entityManager.createEntityGraph(Member.class);
+            graph.addAttributeNodes("courses");
+            return parameters.apply(entityManager.createQuery(jpql, Member.class))
+                    .setHint("jakarta.persistence.fetchgraph", graph)
+                    .getResultList()
+                    .stream()
+                    .map(memberMapper::toMemberDto)
+                    .toList();
+        });
+    }
+}
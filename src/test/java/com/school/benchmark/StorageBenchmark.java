@@ -0,0 +1,203 @@
+package com.school.benchmark;
+
+import com.school.CourseApplication;
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import com.school.service.CourseService;
+import com.school.service.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * Measures the {@code persistent} profile's file-backed H2 for node sizing: write throughput of
+ * bulk member creation, and latency of the {@link MemberRepository} report queries with H2's page
+ * cache warm and right after a restart. Each trial seeds a fresh database file with
+ * {@value #STUDENTS} students over {@value #GROUPS} groups and {@value #COURSES} courses, for every
+ * combination of page cache size (KB) and write delay (ms).
+ * <p>
+ * Cold reads restart the application before each measured query, so they include what a real
+ * restart costs the first report: an empty H2 page cache and unprepared statements, but also the
+ * enrollment index load, which reads every member. The operating system's file cache stays warm.
+ * Run with {@code mvn test -Pjmh -Djmh.include=StorageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int GROUPS = 50;
+    private static final int COURSES = 50;
+    private static final int SEED_BATCH = 5_000;
+    private static final int WRITE_BATCH = 100;
+
+    @Param({"4096", "65536"})
+    private int cacheSize;
+
+    @Param({"0", "500"})
+    private int writeDelay;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberService memberService;
+    private TransactionTemplate readOnly;
+    private List<Long> courseIds;
+    private int written;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("school-storage");
+        start();
+
+        var courseDtos = new ArrayList<CourseDto>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            courseDtos.add(courseDto("Course " + i, i % 2 == 0 ? CourseType.MAIN : CourseType.SECONDARY));
+        }
+        courseIds = context.getBean(CourseService.class).createCourses(courseDtos).stream()
+                .map(CourseDto::getId)
+                .toList();
+
+        var teachers = new ArrayList<MemberDto>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            teachers.add(memberDto("Teacher " + i, 40, "G" + i % GROUPS, MemberType.TEACHER, Set.of(courseIds.get(i))));
+        }
+        memberService.createMembers(teachers);
+        for (int from = 0; from < STUDENTS; from += SEED_BATCH) {
+            memberService.createMembers(students(from, SEED_BATCH));
+        }
+        written = STUDENTS;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /** Restarts the application on the same database file before every cold read. */
+    @State(Scope.Benchmark)
+    public static class Restarted {
+
+        @Setup(Level.Iteration)
+        public void restart(StorageBenchmark storage) {
+            storage.context.close();
+            storage.start();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(WRITE_BATCH)
+    public List<MemberDto> writeMembers() {
+        List<MemberDto> created = memberService.createMembers(students(written, WRITE_BATCH));
+        written += WRITE_BATCH;
+        return created;
+    }
+
+    @Benchmark
+    public List<MemberDto> warmByGroup() {
+        return byGroup();
+    }
+
+    @Benchmark
+    public List<MemberDto> warmByTypeAndCourse() {
+        return byTypeAndCourse();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 5)
+    public List<MemberDto> coldByGroup(Restarted restarted) {
+        return byGroup();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 5)
+    public List<MemberDto> coldByTypeAndCourse(Restarted restarted) {
+        return byTypeAndCourse();
+    }
+
+    private List<MemberDto> byGroup() {
+        return report(() -> memberRepository.findRowsByGroup("G0"));
+    }
+
+    private List<MemberDto> byTypeAndCourse() {
+        return report(() -> memberRepository.findRowsByTypeAndCoursesId(MemberType.STUDENT, courseIds.get(0)));
+    }
+
+    /** Reads member rows, then their enrollments, in a read-only transaction, as the service does. */
+    private List<MemberDto> report(Supplier<List<MemberRow>> rows) {
+        return readOnly.execute(status -> {
+            List<MemberRow> members = rows.get();
+            List<Long> memberIds = members.stream().map(MemberRow::id).toList();
+            return MemberRow.toMemberDtos(members, memberRepository.findCourseIdsByMemberIdIn(memberIds));
+        });
+    }
+
+    private List<MemberDto> students(int from, int count) {
+        var students = new ArrayList<MemberDto>(count);
+        for (int i = from; i < from + count; i++) {
+            var courses = Set.of(courseIds.get(i % COURSES), courseIds.get((i + 1) % COURSES));
+            students.add(memberDto("Student " + i, 18 + i % 10, "G" + i % GROUPS, MemberType.STUDENT, courses));
+        }
+        return students;
+    }
+
+    private void start() {
+        context = new SpringApplicationBuilder(CourseApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .run("--spring.jpa.show-sql=false", "--logging.level.com.school=WARN",
+                        "--school.storage.directory=" + directory.toAbsolutePath(),
+                        "--school.storage.cache-size=" + cacheSize,
+                        "--school.storage.write-delay=" + writeDelay);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberService = context.getBean(MemberService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+}
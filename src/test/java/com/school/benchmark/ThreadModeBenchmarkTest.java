@@ -0,0 +1,127 @@
+package com.school.benchmark;
+
+import com.school.CourseApplication;
+import com.school.enums.CourseType;
+import com.school.service.CourseService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and p99 latency of the default platform-thread request handling against the
+ * {@code virtual-threads} profile under a burst of concurrent clients.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int COURSES = 200;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        var platform = run("platform", "default");
+        var virtual = run("virtual", "virtual-threads");
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        assertThat(platform.failed()).isZero();
+        assertThat(virtual.failed()).isZero();
+    }
+
+    private Result run(String name, String profile) throws Exception {
+        try (var context = start(profile)) {
+            var courseService = context.getBean(CourseService.class);
+            for (int i = 0; i < COURSES; i++) {
+                courseService.createCourse(courseDto("Course " + i, CourseType.MAIN));
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var uri = URI.create("http://localhost:" + port + "/api/courses?limit=20");
+
+            burst(uri, CLIENTS / 10);
+            return burst(uri, CLIENTS).named(name);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String profile) {
+        return new SpringApplicationBuilder(CourseApplication.class)
+                .profiles(profile)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + profile,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.school=WARN");
+    }
+
+    private static Result burst(URI uri, int clients) throws Exception {
+        var latencies = new long[clients * REQUESTS_PER_CLIENT];
+        var futures = new ArrayList<Future<Integer>>(clients);
+        long start = System.nanoTime();
+        try (var http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c * REQUESTS_PER_CLIENT;
+                futures.add(executor.submit(() -> requests(http, uri, latencies, offset)));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int failed = 0;
+        for (Future<Integer> future : futures) {
+            failed += future.get();
+        }
+        return new Result("", latencies.length, failed, elapsed, percentile(latencies, 0.99));
+    }
+
+    private static int requests(HttpClient http, URI uri, long[] latencies, int offset) {
+        var request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        int failed = 0;
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+            long start = System.nanoTime();
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                    failed++;
+                }
+            } catch (Exception e) {
+                failed++;
+            }
+            latencies[offset + i] = System.nanoTime() - start;
+        }
+        return failed;
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        var sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private record Result(String name, int requests, int failed, long elapsedNanos, long p99Nanos) {
+
+        Result named(String name) {
+            return new Result(name, requests, failed, elapsedNanos, p99Nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,.0f req/s, p99 %.1f ms, %d failed", name,
+                    requests / (elapsedNanos / 1_000_000_000.0), p99Nanos / 1_000_000.0, failed);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.school.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportCacheTest {
+
+    private static final TrackedTable[] TABLES = {TrackedTable.MEMBERS, TrackedTable.MEMBER_COURSES};
+
+    private final TableVersions tableVersions = new TableVersions();
+    private final ReportCache reportCache = new ReportCache(100, tableVersions);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldServeCachedResultWhileTablesAreUnchanged() throws Throwable {
+        assertThat(load("A1")).isEqualTo(1);
+        assertThat(load("A1")).isEqualTo(1);
+        assertThat(load("B1")).isEqualTo(2);
+
+        assertThat(reportCache.nativeCache().stats().hitCount()).isEqualTo(1);
+        assertThat(reportCache.nativeCache().stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadAfterTrackedTableIsBumped() throws Throwable {
+        load("A1");
+
+        tableVersions.bump(TrackedTable.MEMBER_COURSES);
+
+        assertThat(load("A1")).isEqualTo(2);
+        assertThat(load("A1")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIgnoreBumpsOfUntrackedTables() throws Throwable {
+        load("A1");
+
+        tableVersions.bump(TrackedTable.COURSES);
+
+        assertThat(load("A1")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheFailures() throws Throwable {
+        assertThatThrownBy(() -> reportCache.get(reportMethod(), new Object[]{"A1"}, TABLES, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(load("A1")).isEqualTo(1);
+    }
+
+    private Object load(String group) throws Throwable {
+        return reportCache.get(reportMethod(), new Object[]{group}, TABLES, loads::incrementAndGet);
+    }
+
+    private static Method reportMethod() throws NoSuchMethodException {
+        return String.class.getMethod("valueOf", Object.class);
+    }
+}
@@ -3,20 +3,32 @@ package com.school.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.school.dto.CourseDto;
 import com.school.enums.CourseType;
+import com.school.idempotency.IdempotentRequests;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static com.school.fixture.CourseFixture.courseDto;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -33,6 +45,9 @@ class CourseControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void shouldCreateCourse() throws Exception {
         var dto = courseDto("Math", CourseType.MAIN);
@@ -46,6 +61,59 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.type").value(dto.getType().name()));
     }
 
+    @Test
+    void shouldReplayCreateWithSameIdempotencyKey() throws Exception {
+        var body = objectMapper.writeValueAsString(courseDto("Math", CourseType.MAIN));
+
+        var first = mockMvc.perform(post(COURSES_PATH)
+                        .header(IdempotentRequests.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER))
+                .andReturn().getResponse();
+        var created = objectMapper.readValue(first.getContentAsString(), CourseDto.class);
+
+        mockMvc.perform(post(COURSES_PATH)
+                        .header(IdempotentRequests.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(header().string(HttpHeaders.ETAG, first.getHeader(HttpHeaders.ETAG)))
+                .andExpect(jsonPath("$.id").value(created.getId()));
+        mockMvc.perform(get(COURSES_PATH))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedWithDifferentBody() throws Exception {
+        mockMvc.perform(post(COURSES_PATH)
+                        .header(IdempotentRequests.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseDto("Math", CourseType.MAIN))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post(COURSES_PATH)
+                        .header(IdempotentRequests.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseDto("Art", CourseType.SECONDARY))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void shouldCreateCoursesInBulk() throws Exception {
+        var dtos = List.of(courseDto("Math", CourseType.MAIN), courseDto("Art", CourseType.SECONDARY));
+
+        mockMvc.perform(post(COURSES_PATH + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[1].name").value("Art"));
+    }
+
     @Test
     void shouldGetCourseById() throws Exception {
         var course = createCourse("Math", CourseType.MAIN);
@@ -71,6 +139,69 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void shouldStreamAllCoursesAsNdjson() throws Exception {
+        createCourse("Math", CourseType.MAIN);
+        createCourse("Art", CourseType.SECONDARY);
+
+        var result = mockMvc.perform(get(COURSES_PATH).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), CourseDto.class).getName()).isEqualTo("Art");
+    }
+
+    @Test
+    void shouldGetCoursesPageByCursor() throws Exception {
+        createCourse("Math", CourseType.MAIN);
+        var art = createCourse("Art", CourseType.SECONDARY);
+        var physics = createCourse("Physics", CourseType.MAIN);
+
+        mockMvc.perform(get(COURSES_PATH).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(art.getId()));
+
+        mockMvc.perform(get(COURSES_PATH)
+                        .param("after", art.getId().toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(physics.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectInvalidPageLimit() throws Exception {
+        mockMvc.perform(get(COURSES_PATH).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.limit").exists());
+    }
+
+    @Test
+    void shouldGetCoursesByIds() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        var art = createCourse("Art", CourseType.SECONDARY);
+
+        mockMvc.perform(get(COURSES_PATH).param("ids", art.getId() + ",999," + math.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Art"))
+                .andExpect(jsonPath("$.items[1].name").value("Math"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
+    @Test
+    void shouldRejectEmptyIds() throws Exception {
+        mockMvc.perform(get(COURSES_PATH).param("ids", ""))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldUpdateCourse() throws Exception {
         var course = createCourse("Math", CourseType.MAIN);
@@ -83,6 +214,38 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.name").value(updated.getName()));
     }
 
+    @Test
+    void shouldServeConditionalRequestsWithETags() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        var courseTag = mockMvc.perform(get(COURSE_BY_ID_PATH, course.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        var listTag = mockMvc.perform(get(COURSES_PATH))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(COURSE_BY_ID_PATH, course.getId()).header(HttpHeaders.IF_NONE_MATCH, courseTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get(COURSES_PATH).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+
+        var updated = courseDto("Advanced Math", CourseType.MAIN);
+        mockMvc.perform(put(COURSE_BY_ID_PATH, course.getId())
+                        .header(HttpHeaders.IF_MATCH, courseTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(courseTag)));
+
+        mockMvc.perform(get(COURSES_PATH).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Advanced Math"));
+        mockMvc.perform(put(COURSE_BY_ID_PATH, course.getId())
+                        .header(HttpHeaders.IF_MATCH, courseTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void shouldDeleteCourse() throws Exception {
         var course = createCourse("Math", CourseType.MAIN);
@@ -94,6 +257,45 @@ class CourseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldTimeControllerAndServiceCalls() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        mockMvc.perform(get(COURSE_BY_ID_PATH, course.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(COURSE_BY_ID_PATH, 999))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/metrics/controller.requests")
+                        .param("tag", "method:getCourseById", "status:200"))
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/controller.requests")
+                        .param("tag", "method:getCourseById", "exception:ResourceNotFoundException"))
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mockMvc.perform(get("/actuator/metrics/service.calls")
+                        .param("tag", "class:com.school.service.CourseService", "method:getCourseById"))
+                .andExpect(jsonPath("$.measurements[0].value").value(2.0));
+    }
+
+    @Test
+    void shouldServeRepeatedCourseReadsFromSecondLevelCache() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(COURSE_BY_ID_PATH, course.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(COURSE_BY_ID_PATH, course.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(COURSES_PATH))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(COURSES_PATH))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     private CourseDto createCourse(String courseName, CourseType courseType) throws Exception {
         var dto = courseDto(courseName, courseType);
         var result = mockMvc.perform(post(COURSES_PATH)
@@ -5,23 +5,38 @@ import com.school.dto.CourseDto;
 import com.school.dto.MemberDto;
 import com.school.enums.CourseType;
 import com.school.enums.MemberType;
+import com.school.idempotency.IdempotentRequests;
+import com.school.web.ReadYourWritesFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.school.fixture.CourseFixture.courseDto;
 import static com.school.fixture.MemberFixture.memberDto;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -31,6 +46,7 @@ class MemberControllerTest {
 
     private static final String MEMBERS_PATH = "/members";
     private static final String MEMBER_BY_ID_PATH = MEMBERS_PATH + "/{id}";
+    private static final String BULK_PATH = MEMBERS_PATH + "/bulk";
     private static final String COURSES_PATH = "/courses";
 
     @Autowired
@@ -39,6 +55,9 @@ class MemberControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int maximumPoolSize;
+
     @Test
     void shouldCreateStudent() throws Exception {
         var course = createCourse("Math", CourseType.MAIN);
@@ -65,7 +84,71 @@ class MemberControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.name").value(dto.getName()))
-                .andExpect(jsonPath("$.type").value("TEACHER"));
+                .andExpect(jsonPath("$.type").value("TEACHER"))
+                .andExpect(jsonPath("$.teacher").doesNotExist())
+                .andExpect(jsonPath("$.assignedToCourses").doesNotExist());
+    }
+
+    @Test
+    void shouldCreateMembersInBulk() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        var art = createCourse("Art", CourseType.SECONDARY);
+        var dtos = List.of(
+                memberDto("John", 20, "A1", MemberType.STUDENT, Set.of(math.getId(), art.getId())),
+                memberDto("Jane", 22, "A2", MemberType.STUDENT, Set.of()),
+                memberDto("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of(math.getId())));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].courseIds.length()").value(2))
+                .andExpect(jsonPath("$[2].name").value("Prof Smith"));
+
+        mockMvc.perform(get(MEMBERS_PATH).param("type", "STUDENT"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldRejectBulkWithTwoTeachersForSameCourse() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        var dtos = List.of(
+                memberDto("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of(math.getId())),
+                memberDto("Prof Jones", 50, "A1", MemberType.TEACHER, Set.of(math.getId())));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get(MEMBERS_PATH).param("type", "TEACHER"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldRejectBulkWithNonExistentCourse() throws Exception {
+        var dtos = List.of(memberDto("John", 20, "A1", MemberType.STUDENT, Set.of(999L)));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Courses not found with ids: [999]"));
+    }
+
+    @Test
+    void shouldRejectBulkWithInvalidMember() throws Exception {
+        var dtos = List.of(
+                memberDto("John", 20, "A1", MemberType.STUDENT, Set.of()),
+                memberDto("", 20, "A1", MemberType.STUDENT, Set.of()));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['memberDtos[1].name']").exists());
     }
 
     @Test
@@ -108,6 +191,68 @@ class MemberControllerTest {
                 .andExpect(jsonPath("$.length()").value(1));
     }
 
+    @Test
+    void shouldGetMembersByTypePageByCursor() throws Exception {
+        var john = createMember("John", 20, "A1", MemberType.STUDENT, Set.of());
+        createMember("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of());
+        var jane = createMember("Jane", 22, "A2", MemberType.STUDENT, Set.of());
+
+        mockMvc.perform(get(MEMBERS_PATH)
+                        .param("type", "STUDENT")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(john.getId()))
+                .andExpect(jsonPath("$.nextCursor").value(john.getId()));
+
+        mockMvc.perform(get(MEMBERS_PATH)
+                        .param("type", "STUDENT")
+                        .param("after", john.getId().toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(jane.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldStreamMembersByTypeAsNdjson() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        createMember("John", 20, "A1", MemberType.STUDENT, Set.of(course.getId()));
+        createMember("Jane", 22, "A2", MemberType.STUDENT, Set.of());
+        createMember("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of(course.getId()));
+
+        var result = mockMvc.perform(get(MEMBERS_PATH)
+                        .param("type", "STUDENT")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(2);
+        var first = objectMapper.readValue(lines.get(0), MemberDto.class);
+        assertThat(first.getName()).isEqualTo("John");
+        assertThat(first.getCourseIds()).containsExactly(course.getId());
+    }
+
+    @Test
+    void shouldGetMembersByIdsWithCourseIds() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        var john = createMember("John", 20, "A1", MemberType.STUDENT, Set.of(course.getId()));
+        var jane = createMember("Jane", 21, "A1", MemberType.STUDENT, Set.of());
+
+        mockMvc.perform(get(MEMBERS_PATH).param("ids", jane.getId() + ",999," + john.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Jane"))
+                .andExpect(jsonPath("$.items[1].courseIds[0]").value(course.getId()))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
     @Test
     void shouldUpdateMember() throws Exception {
         var member = createMember("John", 20, "A1", MemberType.STUDENT, Set.of());
@@ -122,6 +267,59 @@ class MemberControllerTest {
                 .andExpect(jsonPath("$.group").value(updated.getGroup()));
     }
 
+    @Test
+    void shouldReadOwnWriteWithReadYourWritesToken() throws Exception {
+        var dto = memberDto("John", 20, "A1", MemberType.STUDENT, Set.of());
+
+        var created = mockMvc.perform(post(MEMBERS_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ReadYourWritesFilter.HEADER))
+                .andReturn().getResponse();
+        var id = objectMapper.readValue(created.getContentAsString(), MemberDto.class).getId();
+
+        mockMvc.perform(get(MEMBER_BY_ID_PATH, id)
+                        .header(ReadYourWritesFilter.HEADER, created.getHeader(ReadYourWritesFilter.HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ReadYourWritesFilter.HEADER))
+                .andExpect(jsonPath("$.name").value(dto.getName()));
+    }
+
+    @Test
+    void shouldServeConditionalRequestsWithETags() throws Exception {
+        var course = createCourse("Math", CourseType.MAIN);
+        var member = createMember("John", 20, "A1", MemberType.STUDENT, Set.of());
+        var etag = mockMvc.perform(get(MEMBER_BY_ID_PATH, member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(MEMBER_BY_ID_PATH, member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        var enrolled = memberDto("John", 20, "A1", MemberType.STUDENT, Set.of(course.getId()));
+        var newEtag = mockMvc.perform(put(MEMBER_BY_ID_PATH, member.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrolled)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+
+        mockMvc.perform(put(MEMBER_BY_ID_PATH, member.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrolled)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(MEMBER_BY_ID_PATH, member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.courseIds[0]").value(course.getId()));
+    }
+
     @Test
     void shouldReturnNotFoundWhenUpdatingMemberWithNonExistentCourse() throws Exception {
         var member = createMember("John", 20, "A1", MemberType.STUDENT, Set.of());
@@ -144,6 +342,140 @@ class MemberControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldRejectSecondTeacherForCourse() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        createMember("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of(math.getId()));
+
+        mockMvc.perform(post(MEMBERS_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                memberDto("Prof Jones", 50, "A1", MemberType.TEACHER, Set.of(math.getId())))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value(
+                        "A teacher is already assigned to course with id: " + math.getId()));
+    }
+
+    @Test
+    void shouldFreeCourseWhenTeacherIsReassignedOrDeleted() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        var art = createCourse("Art", CourseType.SECONDARY);
+        var smith = createMember("Prof Smith", 45, "A1", MemberType.TEACHER, Set.of(math.getId()));
+        var jones = createMember("Prof Jones", 50, "A1", MemberType.TEACHER, Set.of(art.getId()));
+
+        mockMvc.perform(put(MEMBER_BY_ID_PATH, smith.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                memberDto("Prof Smith", 46, "A1", MemberType.TEACHER, Set.of(math.getId())))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put(MEMBER_BY_ID_PATH, smith.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                memberDto("Smith", 46, "A1", MemberType.STUDENT, Set.of(math.getId())))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(MEMBER_BY_ID_PATH, jones.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post(MEMBERS_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(memberDto(
+                                "Prof Brown", 40, "A1", MemberType.TEACHER, Set.of(math.getId(), art.getId())))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void shouldCreateMembersWithNewGroupsConcurrentlyAtPoolSize() throws Exception {
+        int requests = maximumPoolSize;
+        var executor = Executors.newFixedThreadPool(requests);
+        var start = new CountDownLatch(1);
+        try {
+            var statuses = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < requests; i++) {
+                var body = objectMapper.writeValueAsString(
+                        memberDto("Student " + i, 20, "New" + i, MemberType.STUDENT, Set.of()));
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post(MEMBERS_PATH)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            var results = new ArrayList<Integer>();
+            for (var status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(results).hasSize(requests).containsOnly(201);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldCreateMemberOnceForConcurrentDuplicates() throws Exception {
+        var body = objectMapper.writeValueAsString(memberDto("John", 20, "A1", MemberType.STUDENT, Set.of()));
+        int requests = 8;
+        var executor = Executors.newFixedThreadPool(requests);
+        var start = new CountDownLatch(1);
+        try {
+            var responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post(MEMBERS_PATH)
+                                    .header(IdempotentRequests.HEADER, "key-1")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andExpect(status().isCreated())
+                            .andReturn().getResponse().getContentAsString();
+                }));
+            }
+            start.countDown();
+            var ids = new ArrayList<Long>();
+            for (var response : responses) {
+                ids.add(objectMapper.readValue(response.get(30, TimeUnit.SECONDS), MemberDto.class).getId());
+            }
+
+            assertThat(ids).hasSize(requests).containsOnly(ids.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldAssignOnlyOneOfConcurrentTeachersToCourse() throws Exception {
+        var math = createCourse("Math", CourseType.MAIN);
+        int requests = 8;
+        var executor = Executors.newFixedThreadPool(requests);
+        var start = new CountDownLatch(1);
+        try {
+            var statuses = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < requests; i++) {
+                var body = objectMapper.writeValueAsString(
+                        memberDto("Prof " + i, 40, "A1", MemberType.TEACHER, Set.of(math.getId())));
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post(MEMBERS_PATH)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            var results = new ArrayList<Integer>();
+            for (var status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(results).containsOnly(201, 409);
+            assertThat(results).filteredOn(status -> status == 201).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private CourseDto createCourse(String courseName, CourseType courseType) throws Exception {
         var dto = courseDto(courseName, courseType);
         var result = mockMvc.perform(post(COURSES_PATH)
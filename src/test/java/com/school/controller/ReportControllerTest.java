@@ -18,9 +18,14 @@ import java.util.Set;
 
 import static com.school.fixture.CourseFixture.courseDto;
 import static com.school.fixture.MemberFixture.memberDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,6 +51,10 @@ class ReportControllerTest {
     private static final String GROUP_MEMBERS_PATH = "/reports/groups/members";
     private static final String GROUP_COURSE_PATH = "/reports/groups/courses";
     private static final String MEMBERS_FILTER_PATH = "/reports/members/filter";
+    private static final String STATS_PATH = "/reports/stats";
+    private static final String ENROLLMENTS_QUERY_PATH = "/reports/enrollments/query";
+    private static final String ENROLLMENTS_COUNT_PATH = "/reports/enrollments/count";
+    private static final String CACHE_GETS_PATH = "/actuator/metrics/cache.gets";
 
     private static final String GROUP_A1 = "A1";
     private static final String GROUP_B1 = "B1";
@@ -95,6 +104,26 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$.count").value(1));
     }
 
+    @Test
+    void shouldReturnStatsInOneResponse() throws Exception {
+        mockMvc.perform(get(STATS_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.membersByTypeAndGroup.STUDENT.A1").value(3))
+                .andExpect(jsonPath("$.membersByTypeAndGroup.STUDENT.B1").value(1))
+                .andExpect(jsonPath("$.membersByTypeAndGroup.TEACHER.A1").value(1))
+                .andExpect(jsonPath("$.membersByTypeAndGroup.TEACHER.B1").value(1))
+                .andExpect(jsonPath("$.coursesByType.MAIN").value(2))
+                .andExpect(jsonPath("$.coursesByType.SECONDARY").value(1))
+                .andExpect(jsonPath("$.enrollmentsByCourse['" + math.getId() + "']").value(4))
+                .andExpect(jsonPath("$.enrollmentsByCourse['" + art.getId() + "']").value(3))
+                .andExpect(jsonPath("$.enrollmentsByCourse['" + physics.getId() + "']").value(3))
+                .andExpect(jsonPath("$.ageBucketWidth").value(10))
+                .andExpect(jsonPath("$.ageBucketsByGroup.A1['20']").value(3))
+                .andExpect(jsonPath("$.ageBucketsByGroup.A1['40']").value(1))
+                .andExpect(jsonPath("$.ageBucketsByGroup.B1['10']").value(1))
+                .andExpect(jsonPath("$.ageBucketsByGroup.B1['50']").value(1));
+    }
+
     @Test
     void shouldReturnStudentsByCourse() throws Exception {
         // Math course has John, Jane, Alice as students
@@ -105,6 +134,99 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$.length()").value(3));
     }
 
+    @Test
+    void shouldReturnStudentsByCoursePageByCursor() throws Exception {
+        // Math course has John, Jane, Alice as students
+        var firstPage = mockMvc.perform(get(COURSE_MEMBERS_PATH)
+                        .param("courseId", math.getId().toString())
+                        .param("type", "STUDENT")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        var nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get(COURSE_MEMBERS_PATH)
+                        .param("courseId", math.getId().toString())
+                        .param("type", "STUDENT")
+                        .param("after", nextCursor)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Alice"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnMembersByGroupPage() throws Exception {
+        // Group A1 has 4 members
+        mockMvc.perform(get(GROUP_MEMBERS_PATH)
+                        .param("group", GROUP_A1)
+                        .param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnStudentsOlderThanAgeInCoursePage() throws Exception {
+        // Students with age >= 21 in Math: Jane (22), Alice (25)
+        mockMvc.perform(get(MEMBERS_FILTER_PATH)
+                        .param("minAge", "21")
+                        .param("courseId", math.getId().toString())
+                        .param("type", "STUDENT")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Jane"))
+                .andExpect(jsonPath("$.nextCursor").exists());
+    }
+
+    @Test
+    void shouldStreamStudentsByCourseAsNdjson() throws Exception {
+        var result = mockMvc.perform(get(COURSE_MEMBERS_PATH)
+                        .param("courseId", math.getId().toString())
+                        .param("type", "STUDENT")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertThat(result.getResponse().getContentAsString().lines()).hasSize(3);
+    }
+
+    @Test
+    void shouldStreamMembersByGroupAsNdjson() throws Exception {
+        var result = mockMvc.perform(get(GROUP_MEMBERS_PATH)
+                        .param("group", GROUP_B1)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertThat(result.getResponse().getContentAsString().lines()).hasSize(2);
+    }
+
+    @Test
+    void shouldReturnNotFoundBeforeStreamingWhenCourseDoesNotExist() throws Exception {
+        var result = mockMvc.perform(get(MEMBERS_FILTER_PATH)
+                        .param("minAge", "20")
+                        .param("courseId", "999")
+                        .param("type", "STUDENT")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldReturnMembersByGroup() throws Exception {
         // Group A1 has John, Jane, Alice (students) + Prof Smith (teacher) = 4
@@ -172,6 +294,119 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void shouldKeepCountsInStepWithUpdatesAndDeletes() throws Exception {
+        var eve = createMember("Eve", 30, GROUP_B1, MemberType.STUDENT, Set.of());
+        var dan = createMember("Dan", 19, GROUP_B1, MemberType.STUDENT, Set.of());
+
+        mockMvc.perform(put(MEMBERS_PATH + "/{id}", eve.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                memberDto("Eve", 30, GROUP_B1, MemberType.TEACHER, Set.of()))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(MEMBERS_PATH + "/{id}", dan.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(put(COURSES_PATH + "/{id}", art.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseDto("Art", CourseType.MAIN))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(MEMBERS_COUNT_PATH).param("type", "STUDENT"))
+                .andExpect(jsonPath("$.count").value(4));
+        mockMvc.perform(get(MEMBERS_COUNT_PATH).param("type", "TEACHER"))
+                .andExpect(jsonPath("$.count").value(3));
+        mockMvc.perform(get(COURSES_COUNT_PATH).param("type", "MAIN"))
+                .andExpect(jsonPath("$.count").value(3));
+        mockMvc.perform(get(COURSES_COUNT_PATH).param("type", "SECONDARY"))
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    void shouldServeCachedReportUntilTablesChange() throws Exception {
+        mockMvc.perform(get(MEMBERS_COUNT_PATH).param("type", "STUDENT"))
+                .andExpect(jsonPath("$.count").value(4));
+        mockMvc.perform(get(MEMBERS_COUNT_PATH).param("type", "STUDENT"))
+                .andExpect(jsonPath("$.count").value(4));
+
+        mockMvc.perform(get(CACHE_GETS_PATH).param("tag", "result:hit"))
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+
+        createMember("Eve", 19, GROUP_B1, MemberType.STUDENT, Set.of(art.getId()));
+
+        mockMvc.perform(get(MEMBERS_COUNT_PATH).param("type", "STUDENT"))
+                .andExpect(jsonPath("$.count").value(5));
+        mockMvc.perform(get(GROUP_MEMBERS_PATH).param("group", GROUP_B1))
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void shouldAnswerBooleanEnrollmentQueries() throws Exception {
+        // Students of A1 in Math but not Art: Jane and Alice
+        mockMvc.perform(get(ENROLLMENTS_QUERY_PATH)
+                        .param("allOf", math.getId().toString())
+                        .param("noneOf", art.getId().toString())
+                        .param("type", "STUDENT")
+                        .param("group", GROUP_A1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Jane"))
+                .andExpect(jsonPath("$.items[1].name").value("Alice"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Students in Art or Physics: John, Bob and Alice
+        mockMvc.perform(get(ENROLLMENTS_COUNT_PATH)
+                        .param("anyOf", art.getId() + "," + physics.getId())
+                        .param("type", "STUDENT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3));
+    }
+
+    @Test
+    void shouldKeepEnrollmentIndexInStepWithMemberWrites() throws Exception {
+        var eve = createMember("Eve", 19, GROUP_B1, MemberType.STUDENT, Set.of(math.getId()));
+
+        mockMvc.perform(get(ENROLLMENTS_COUNT_PATH)
+                        .param("allOf", math.getId().toString())
+                        .param("group", GROUP_B1))
+                .andExpect(jsonPath("$.count").value(1));
+
+        mockMvc.perform(put(MEMBERS_PATH + "/{id}", eve.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                memberDto("Eve", 19, GROUP_B1, MemberType.STUDENT, Set.of(art.getId())))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(ENROLLMENTS_COUNT_PATH)
+                        .param("allOf", math.getId().toString())
+                        .param("group", GROUP_B1))
+                .andExpect(jsonPath("$.count").value(0));
+
+        mockMvc.perform(delete(MEMBERS_PATH + "/{id}", eve.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(ENROLLMENTS_COUNT_PATH)
+                        .param("allOf", art.getId().toString())
+                        .param("type", "STUDENT"))
+                .andExpect(jsonPath("$.count").value(2));
+    }
+
+    @Test
+    void shouldInvalidateMemberReportsWhenCourseIsDeleted() throws Exception {
+        var history = createCourse("History", CourseType.SECONDARY);
+        mockMvc.perform(get(COURSE_MEMBERS_PATH)
+                        .param("courseId", history.getId().toString())
+                        .param("type", "STUDENT"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete(COURSES_PATH + "/{id}", history.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(COURSE_MEMBERS_PATH)
+                        .param("courseId", history.getId().toString())
+                        .param("type", "STUDENT"))
+                .andExpect(status().isNotFound());
+    }
+
     private CourseDto createCourse(String courseName, CourseType courseType) throws Exception {
         var dto = courseDto(courseName, courseType);
         var result = mockMvc.perform(post(COURSES_PATH)
@@ -0,0 +1,38 @@
+package com.school.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryReads.clear();
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+
+    @Test
+    void shouldRouteWritesAndNonTransactionalAccessToPrimary() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToPrimaryWhenForced() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryReads.force();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.idempotency;
+
+import com.school.exception.IdempotencyKeyMismatchException;
+import com.school.exception.IdempotentRequestInProgressException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final String KEY = "POST /courses key-1";
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    private static final StoredResponse RESPONSE = new StoredResponse(201, "\"0\"", "{\"id\":1}");
+
+    private final InMemoryIdempotencyStore store =
+            new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(1));
+
+    @Test
+    void shouldReplayCompletedResponse() {
+        assertThat(store.claim(KEY, "a", WAIT)).isEmpty();
+        store.complete(KEY, "a", RESPONSE);
+
+        assertThat(store.claim(KEY, "a", WAIT)).contains(RESPONSE);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        store.claim(KEY, "a", WAIT);
+
+        assertThatThrownBy(() -> store.claim(KEY, "b", WAIT))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void shouldMakeDuplicateWaitForInFlightRequest() throws Exception {
+        store.claim(KEY, "a", WAIT);
+
+        var duplicate = CompletableFuture.supplyAsync(() -> store.claim(KEY, "a", WAIT));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        store.complete(KEY, "a", RESPONSE);
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).contains(RESPONSE);
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTimeout() {
+        store.claim(KEY, "a", WAIT);
+
+        assertThatThrownBy(() -> store.claim(KEY, "a", Duration.ofMillis(50)))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+    }
+
+    @Test
+    void shouldLetWaitingDuplicateRunAfterRelease() throws Exception {
+        store.claim(KEY, "a", WAIT);
+
+        var duplicate = CompletableFuture.supplyAsync(() -> store.claim(KEY, "a", WAIT));
+        Thread.sleep(100);
+        store.release(KEY, "a");
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.school.idempotency;
+
+import com.school.exception.IdempotencyKeyMismatchException;
+import com.school.exception.IdempotentRequestInProgressException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JdbcIdempotencyStoreTest {
+
+    private static final String KEY = "POST /members key-1";
+    private static final Duration WAIT = Duration.ofMillis(200);
+    private static final StoredResponse RESPONSE = new StoredResponse(201, "\"0\"", "{\"id\":1}");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldReplayCompletedResponse() {
+        var store = store(Clock.systemUTC());
+
+        assertThat(store.claim(KEY, "a", WAIT)).isEmpty();
+        store.complete(KEY, "a", RESPONSE);
+
+        assertThat(store.claim(KEY, "a", WAIT)).contains(RESPONSE);
+        assertThatThrownBy(() -> store.claim(KEY, "b", WAIT))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void shouldTimeOutOnInFlightRequestAndReclaimAfterRelease() {
+        var store = store(Clock.systemUTC());
+        store.claim(KEY, "a", WAIT);
+
+        assertThatThrownBy(() -> store.claim(KEY, "a", WAIT))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+        store.release(KEY, "a");
+
+        assertThat(store.claim(KEY, "a", WAIT)).isEmpty();
+    }
+
+    @Test
+    void shouldReclaimAndPurgeExpiredKeys() {
+        var now = Instant.parse("2024-01-01T00:00:00Z");
+        store(Clock.fixed(now, ZoneOffset.UTC)).claim(KEY, "a", WAIT);
+        store(Clock.fixed(now, ZoneOffset.UTC)).claim("POST /members key-2", "a", WAIT);
+        var later = store(Clock.fixed(now.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+
+        assertThat(later.claim(KEY, "b", WAIT)).isEmpty();
+        later.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM idempotency_keys", String.class)).containsExactly(KEY);
+    }
+
+    private JdbcIdempotencyStore store(Clock clock) {
+        return new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofMinutes(1), clock);
+    }
+}
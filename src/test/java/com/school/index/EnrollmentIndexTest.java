@@ -0,0 +1,97 @@
+package com.school.index;
+
+import com.school.enums.MemberType;
+import com.school.repository.MemberCourseId;
+import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.school.fixture.MemberFixture.memberDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnrollmentIndexTest {
+
+    private static final long MATH = 10L;
+    private static final long ART = 11L;
+    private static final long PHYSICS = 12L;
+
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private final EnrollmentIndex enrollmentIndex =
+            new EnrollmentIndex(memberRepository, mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void load() {
+        when(memberRepository.streamAllRows()).thenReturn(Stream.of(
+                new MemberRow(1L, "John", 20, "A1", MemberType.STUDENT),
+                new MemberRow(2L, "Jane", 22, "A1", MemberType.STUDENT),
+                new MemberRow(3L, "Bob", 18, "B1", MemberType.STUDENT),
+                new MemberRow(4L, "Prof Smith", 45, "A1", MemberType.TEACHER)));
+        when(memberRepository.streamAllCourseIds()).thenReturn(Stream.of(
+                new MemberCourseId(1L, MATH),
+                new MemberCourseId(1L, ART),
+                new MemberCourseId(2L, MATH),
+                new MemberCourseId(3L, ART),
+                new MemberCourseId(3L, PHYSICS),
+                new MemberCourseId(4L, MATH)));
+
+        enrollmentIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void shouldCombineAllOfAnyOfAndNoneOf() {
+        assertThat(ids(query(Set.of(MATH), null, Set.of(ART), null, null))).containsExactly(2L, 4L);
+        assertThat(ids(query(null, Set.of(ART, PHYSICS), null, null, null))).containsExactly(1L, 3L);
+        assertThat(ids(query(Set.of(MATH, ART), null, null, null, null))).containsExactly(1L);
+    }
+
+    @Test
+    void shouldFilterByTypeAndGroup() {
+        assertThat(ids(query(Set.of(MATH), null, null, MemberType.STUDENT, "A1"))).containsExactly(1L, 2L);
+        assertThat(ids(query(null, null, null, null, "B1"))).containsExactly(3L);
+        assertThat(ids(query(null, null, null, null, "Z9"))).isEmpty();
+    }
+
+    @Test
+    void shouldMatchNothingForUnknownCourse() {
+        assertThat(enrollmentIndex.count(query(Set.of(99L), null, null, null, null))).isZero();
+        assertThat(enrollmentIndex.count(query(null, null, Set.of(99L), null, null))).isEqualTo(4);
+    }
+
+    @Test
+    void shouldPageAfterCursor() {
+        var everyone = query(null, null, null, null, null);
+
+        assertThat(enrollmentIndex.findIds(everyone, 0L, 2)).containsExactly(1L, 2L);
+        assertThat(enrollmentIndex.findIds(everyone, 2L, 2)).containsExactly(3L, 4L);
+        assertThat(enrollmentIndex.findIds(everyone, 4L, 2)).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceAndRemoveMembers() {
+        enrollmentIndex.putAfterCommit(List.of(
+                memberDto(2L, "Jane", MemberType.STUDENT, Set.of(PHYSICS)),
+                memberDto(5L, "Alice", MemberType.STUDENT, Set.of(MATH))));
+        enrollmentIndex.removeAfterCommit(1L);
+
+        assertThat(ids(query(Set.of(MATH), null, null, null, null))).containsExactly(4L, 5L);
+        assertThat(ids(query(Set.of(PHYSICS), null, null, null, null))).containsExactly(2L, 3L);
+        assertThat(ids(query(Set.of(ART), null, null, null, null))).containsExactly(3L);
+    }
+
+    private List<Long> ids(EnrollmentQuery query) {
+        return enrollmentIndex.findIds(query, 0L, 100);
+    }
+
+    private static EnrollmentQuery query(Set<Long> allOf, Set<Long> anyOf, Set<Long> noneOf,
+                                         MemberType type, String group) {
+        return new EnrollmentQuery(allOf, anyOf, noneOf, type, group);
+    }
+}
@@ -0,0 +1,231 @@
+package com.school.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * The weighted set of calls a load test draws from: CRUD on {@code /courses} and {@code /members}
+ * and every {@code /reports} endpoint.
+ * <p>
+ * Reads and reports target the seeded data. Updates and deletes only touch entities created by the
+ * run itself; an entity is taken out of its pool while a call on it is in flight, so concurrent
+ * calls never update or delete the same entity. A call with nothing to work on yet is skipped.
+ */
+final class LoadMix {
+
+    /**
+     * A named endpoint and how often it is called relative to the others.
+     *
+     * @param name   the name results are reported under
+     * @param weight the relative frequency; 0 disables the endpoint
+     * @param call   builds the next call, or returns empty if there is nothing to call it on
+     */
+    record Endpoint(String name, int weight, Supplier<Optional<Call>> call) {
+    }
+
+    /**
+     * A single request and what to do with its response.
+     *
+     * @param request    the request
+     * @param onResponse invoked with the response, or {@code null} if the request failed
+     */
+    record Call(HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+    }
+
+    /**
+     * The data the application was seeded with before the run.
+     *
+     * @param courseIds IDs of the seeded courses
+     * @param memberIds IDs of the seeded members
+     * @param groups    the seeded group names
+     */
+    record SeedData(List<Long> courseIds, List<Long> memberIds, List<String> groups) {
+    }
+
+    private final URI baseUri;
+    private final SeedData seed;
+    private final ObjectMapper objectMapper;
+    private final IdPool createdCourses = new IdPool();
+    private final IdPool createdMembers = new IdPool();
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+
+    LoadMix(URI baseUri, SeedData seed, ObjectMapper objectMapper, Map<String, Integer> weights) {
+        this.baseUri = baseUri;
+        this.seed = seed;
+        this.objectMapper = objectMapper;
+        var defaults = defaultEndpoints();
+        this.endpoints = defaults.stream()
+                .map(endpoint -> new Endpoint(endpoint.name(),
+                        weights.getOrDefault(endpoint.name(), endpoint.weight()), endpoint.call()))
+                .filter(endpoint -> endpoint.weight() > 0)
+                .toList();
+        var unknown = new ArrayList<>(weights.keySet());
+        unknown.removeAll(defaults.stream().map(Endpoint::name).toList());
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown endpoints in loadtest.mix: " + unknown);
+        }
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("loadtest.mix disables every endpoint");
+        }
+    }
+
+    /**
+     * Returns the enabled endpoints with their effective weights.
+     *
+     * @return the endpoints
+     */
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Picks the next endpoint to call, in proportion to the weights.
+     *
+     * @return the endpoint
+     */
+    Endpoint next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            pick -= endpoint.weight();
+            if (pick < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    private List<Endpoint> defaultEndpoints() {
+        return List.of(
+                new Endpoint("courses.create", 2, () -> Optional.of(
+                        new Call(post("/courses", newCourse()), created(createdCourses)))),
+                new Endpoint("courses.get", 10, () -> get("/courses/" + any(seed.courseIds()))),
+                new Endpoint("courses.list", 1, () -> get("/courses")),
+                new Endpoint("courses.page", 5, () -> get("/courses?limit=20")),
+                new Endpoint("courses.update", 2, () -> createdCourses.take().map(id -> new Call(
+                        put("/courses/" + id, newCourse()), response -> createdCourses.add(id)))),
+                new Endpoint("courses.delete", 1, () -> createdCourses.take().map(id -> new Call(
+                        delete("/courses/" + id), response -> { }))),
+                new Endpoint("members.create", 4, () -> Optional.of(
+                        new Call(post("/members", newStudent()), created(createdMembers)))),
+                new Endpoint("members.get", 10, () -> get("/members/" + any(seed.memberIds()))),
+                new Endpoint("members.list", 1, () -> get("/members?type=TEACHER")),
+                new Endpoint("members.page", 5, () -> get("/members?type=STUDENT&limit=20")),
+                new Endpoint("members.update", 3, () -> createdMembers.take().map(id -> new Call(
+                        put("/members/" + id, newStudent()), response -> createdMembers.add(id)))),
+                new Endpoint("members.delete", 2, () -> createdMembers.take().map(id -> new Call(
+                        delete("/members/" + id), response -> { }))),
+                new Endpoint("reports.members.count", 5, () -> get("/reports/members/count?type=STUDENT")),
+                new Endpoint("reports.courses.count", 5, () -> get("/reports/courses/count?type=MAIN")),
+                new Endpoint("reports.courses.members", 8, () -> get(
+                        "/reports/courses/members?type=STUDENT&courseId=" + any(seed.courseIds()))),
+                new Endpoint("reports.groups.members", 8, () -> get(
+                        "/reports/groups/members?group=" + any(seed.groups()))),
+                new Endpoint("reports.groups.courses", 8, () -> get(
+                        "/reports/groups/courses?group=" + any(seed.groups()) + "&courseId=" + any(seed.courseIds()))),
+                new Endpoint("reports.members.filter", 8, () -> get(
+                        "/reports/members/filter?type=STUDENT&minAge=22&courseId=" + any(seed.courseIds()))));
+    }
+
+    private CourseDto newCourse() {
+        var random = ThreadLocalRandom.current();
+        return courseDto("Load course " + random.nextInt(1_000_000),
+                random.nextBoolean() ? CourseType.MAIN : CourseType.SECONDARY);
+    }
+
+    private MemberDto newStudent() {
+        var random = ThreadLocalRandom.current();
+        return memberDto("Load student " + random.nextInt(1_000_000), 18 + random.nextInt(10),
+                any(seed.groups()), MemberType.STUDENT, Set.of(any(seed.courseIds())));
+    }
+
+    /** Returns the ID of a created entity to its pool once the create call succeeds. */
+    private Consumer<HttpResponse<String>> created(IdPool pool) {
+        return response -> {
+            if (response != null && response.statusCode() == 201) {
+                try {
+                    pool.add(objectMapper.readTree(response.body()).get("id").asLong());
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Unreadable create response: " + response.body(), e);
+                }
+            }
+        };
+    }
+
+    private Optional<Call> get(String path) {
+        return Optional.of(new Call(request(path).GET().build(), response -> { }));
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private HttpRequest put(String path, Object body) {
+        return request(path).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + path))
+                .header("Accept", "application/json");
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T any(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    /** IDs of entities created during the run that are not currently used by an in-flight call. */
+    private static final class IdPool {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(Long id) {
+            ids.add(id);
+        }
+
+        synchronized Optional<Long> take() {
+            if (ids.isEmpty()) {
+                return Optional.empty();
+            }
+            int last = ids.size() - 1;
+            int pick = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(pick);
+            ids.set(pick, ids.get(last));
+            ids.remove(last);
+            return Optional.of(id);
+        }
+    }
+}
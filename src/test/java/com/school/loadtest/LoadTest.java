@@ -0,0 +1,223 @@
+package com.school.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.school.CourseApplication;
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.service.CourseService;
+import com.school.service.MemberService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+
+/**
+ * Open-model HTTP load generator.
+ * <p>
+ * Starts the application on a random port against its in-memory H2, seeds it, then starts
+ * requests from the {@link LoadMix} at a fixed arrival rate, each on its own virtual thread, no
+ * matter how many are still in flight. Latency is measured from when a request was scheduled to
+ * start, so a stalled server shows up as queueing delay rather than as fewer, faster requests.
+ * Per-endpoint HdrHistogram p50/p99/p999 are written as JSON to {@code loadtest.output}.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; see {@link LoadTestConfig} for the settings.
+ */
+public final class LoadTest {
+
+    private static final int SEED_COURSES = 20;
+    private static final int SEED_STUDENTS = 2_000;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        var objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        try (var context = start(config.profiles())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var mix = new LoadMix(URI.create("http://localhost:" + port + "/api"), seed(context), objectMapper,
+                    config.mix());
+            var results = run(config, mix);
+            Files.createDirectories(config.output().toAbsolutePath().getParent());
+            objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.output().toFile(), results);
+            System.out.println("Load test results written to " + config.output().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String profiles) {
+        return new SpringApplicationBuilder(CourseApplication.class)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .run(
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.school=WARN");
+    }
+
+    private static LoadMix.SeedData seed(ConfigurableApplicationContext context) {
+        var courseDtos = IntStream.range(0, SEED_COURSES)
+                .mapToObj(i -> courseDto("Course " + i, i % 2 == 0 ? CourseType.MAIN : CourseType.SECONDARY))
+                .toList();
+        List<Long> courseIds = context.getBean(CourseService.class).createCourses(courseDtos).stream()
+                .map(CourseDto::getId)
+                .toList();
+        List<String> groups = IntStream.range(0, SEED_COURSES).mapToObj(i -> "G" + i).toList();
+
+        var memberDtos = new ArrayList<MemberDto>(SEED_COURSES + SEED_STUDENTS);
+        for (int i = 0; i < SEED_COURSES; i++) {
+            memberDtos.add(memberDto("Teacher " + i, 40, groups.get(i), MemberType.TEACHER,
+                    Set.of(courseIds.get(i))));
+        }
+        for (int i = 0; i < SEED_STUDENTS; i++) {
+            memberDtos.add(memberDto("Student " + i, 18 + i % 10, groups.get(i % groups.size()), MemberType.STUDENT,
+                    Set.of(courseIds.get(i % SEED_COURSES), courseIds.get((i + 1) % SEED_COURSES))));
+        }
+        List<Long> memberIds = context.getBean(MemberService.class).createMembers(memberDtos).stream()
+                .map(MemberDto::getId)
+                .toList();
+        return new LoadMix.SeedData(courseIds, memberIds, groups);
+    }
+
+    private static Results run(LoadTestConfig config, LoadMix mix) {
+        var stats = new LinkedHashMap<String, EndpointStats>();
+        mix.endpoints().forEach(endpoint -> stats.put(endpoint.name(), new EndpointStats()));
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        Instant startedAt = Instant.now();
+
+        try (var http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                var endpoint = mix.next();
+                var endpointStats = scheduled >= measureFrom ? stats.get(endpoint.name()) : null;
+                long intendedStart = scheduled;
+                executor.submit(() -> call(http, endpoint, intendedStart, endpointStats));
+            }
+        }
+
+        var endpoints = new LinkedHashMap<String, EndpointResult>();
+        var total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        long skipped = 0;
+        for (var entry : stats.entrySet()) {
+            var endpointStats = entry.getValue();
+            endpoints.put(entry.getKey(), endpointStats.result());
+            total.add(endpointStats.latency);
+            errors += endpointStats.errors.sum();
+            skipped += endpointStats.skipped.sum();
+        }
+        return new Results(startedAt, config.profiles(), config.rate(), config.warmup().toSeconds(),
+                config.duration().toSeconds(), EndpointResult.of(total, errors, skipped), endpoints);
+    }
+
+    private static void call(HttpClient http, LoadMix.Endpoint endpoint, long intendedStart, EndpointStats stats) {
+        var call = endpoint.call().get();
+        if (call.isEmpty()) {
+            if (stats != null) {
+                stats.skipped.increment();
+            }
+            return;
+        }
+        HttpResponse<String> response = null;
+        try {
+            response = http.send(call.get().request(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Counted as an error below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        call.get().onResponse().accept(response);
+        if (stats != null) {
+            stats.latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (response == null || response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+        }
+    }
+
+    /** Latencies and outcomes recorded for one endpoint during the measured part of the run. */
+    private static final class EndpointStats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        EndpointResult result() {
+            return EndpointResult.of(latency, errors.sum(), skipped.sum());
+        }
+    }
+
+    /**
+     * Summary of one endpoint, or of all endpoints together. Latencies are in milliseconds.
+     *
+     * @param requests requests completed, including errors
+     * @param errors   requests that failed or got a 4xx/5xx status
+     * @param skipped  calls not made because there was nothing to update or delete yet
+     */
+    record EndpointResult(long requests, long errors, long skipped,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs, double meanMs) {
+
+        static EndpointResult of(Histogram latency, long errors, long skipped) {
+            return new EndpointResult(latency.getTotalCount(), errors, skipped,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()),
+                    latency.getMean() / 1_000.0);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+
+    /**
+     * The JSON document written for a run.
+     *
+     * @param startedAt       when the run (including warm-up) started
+     * @param profiles        the Spring profiles the application ran with
+     * @param rate            the target arrival rate, in requests per second
+     * @param warmupSeconds   length of the unrecorded warm-up
+     * @param durationSeconds length of the measured run
+     * @param total           all endpoints together
+     * @param endpoints       each endpoint, by name
+     */
+    record Results(Instant startedAt, String profiles, int rate, long warmupSeconds, long durationSeconds,
+                   EndpointResult total, Map<String, EndpointResult> endpoints) {
+    }
+}
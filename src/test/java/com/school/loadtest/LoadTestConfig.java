@@ -0,0 +1,58 @@
+package com.school.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param rate     requests started per second, regardless of how fast responses come back
+ * @param duration how long requests are recorded
+ * @param warmup   how long requests are sent, but not recorded, before the measured run
+ * @param profiles Spring profiles the application is started with, comma separated
+ * @param mix      weight overrides by endpoint name; endpoints not listed keep their default weight
+ * @param output   the JSON file results are written to
+ */
+public record LoadTestConfig(
+        int rate,
+        Duration duration,
+        Duration warmup,
+        String profiles,
+        Map<String, Integer> mix,
+        Path output) {
+
+    /**
+     * Reads the configuration from system properties, falling back to defaults.
+     *
+     * @return the configuration
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                System.getProperty("loadtest.profiles", ""),
+                parseMix(System.getProperty("loadtest.mix", "")),
+                Path.of(System.getProperty("loadtest.output",
+                        "target/loadtest/results-" + System.currentTimeMillis() + ".json")));
+    }
+
+    /** Parses {@code name:weight} pairs separated by commas, e.g. {@code courses.create:0,reports.groups.members:20}. */
+    private static Map<String, Integer> parseMix(String mix) {
+        var weights = new LinkedHashMap<String, Integer>();
+        Arrays.stream(mix.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .forEach(entry -> {
+                    String[] parts = entry.split(":");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+                    }
+                    weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+                });
+        return weights;
+    }
+}
@@ -0,0 +1,245 @@
+package com.school.repository;
+
+import com.school.cache.GroupDictionary;
+import com.school.dto.CourseDto;
+import com.school.dto.MemberDto;
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.service.CourseService;
+import com.school.service.MemberService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.school.fixture.CourseFixture.courseDto;
+import static com.school.fixture.MemberFixture.memberDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL that Hibernate generates for each {@link MemberRepository}
+ * report query and fails if H2 no longer reads it through one of the indexes meant for it.
+ * <p>
+ * The SQL is captured by a statement inspector while the query runs, then explained with the
+ * same parameter values in their stored form (type codes, group keys), bound in the order they
+ * appear in the statement. Queries that join {@code member_courses} may be driven from either
+ * side depending on the data, so either the members index or the enrollment index is accepted
+ * for them; no query may scan a table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.school.repository.MemberQueryPlanTest$SqlCapture")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberQueryPlanTest {
+
+    private static final int STUDENTS = 500;
+    private static final int GROUPS = 100;
+    private static final int COURSES = 50;
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final String TYPE_ID = "IDX_MEMBERS_TYPE_ID";
+    private static final String TYPE_AGE_ID = "IDX_MEMBERS_TYPE_AGE_ID";
+    private static final String GROUP_ID = "IDX_MEMBERS_GROUP_ID";
+    private static final String GROUP_TYPE_ID = "IDX_MEMBERS_GROUP_TYPE_ID";
+    private static final String COURSE_MEMBER = "IDX_MEMBER_COURSES_COURSE_MEMBER";
+
+    private static final short STUDENT = MemberType.STUDENT.getCode();
+    private static final short TEACHER = MemberType.TEACHER.getCode();
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private GroupDictionary groupDictionary;
+
+    private Long courseId;
+
+    private Integer groupG1;
+
+    @BeforeAll
+    void seed() {
+        var courseDtos = new ArrayList<CourseDto>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            courseDtos.add(courseDto("Course " + i, CourseType.MAIN));
+        }
+        List<Long> courseIds = courseService.createCourses(courseDtos).stream().map(CourseDto::getId).toList();
+        courseId = courseIds.get(0);
+
+        var memberDtos = new ArrayList<MemberDto>(STUDENTS + COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            memberDtos.add(memberDto("Teacher " + i, 40, "G" + i % GROUPS, MemberType.TEACHER, Set.of(courseIds.get(i))));
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            var courses = Set.of(courseIds.get(i % COURSES), courseIds.get((i + 1) % COURSES));
+            memberDtos.add(memberDto("Student " + i, 18 + i % 13, "G" + i % GROUPS, MemberType.STUDENT, courses));
+        }
+        memberService.createMembers(memberDtos);
+        groupG1 = groupDictionary.idOf("G1");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void shouldFindRowsByTypeThroughTypeIndex() {
+        var plan = explain(() -> memberRepository.findRowsByType(MemberType.STUDENT), STUDENT);
+
+        assertUsesOneOf(plan, TYPE_ID, TYPE_AGE_ID);
+    }
+
+    @Test
+    void shouldFindRowsByTypeAndCourseThroughEnrollmentIndex() {
+        var plan = explain(() -> memberRepository.findRowsByTypeAndCoursesId(MemberType.STUDENT, courseId),
+                STUDENT, courseId);
+
+        assertUsesOneOf(plan, COURSE_MEMBER, TYPE_ID, TYPE_AGE_ID);
+    }
+
+    @Test
+    void shouldFindRowsByGroupThroughGroupIndex() {
+        var plan = explain(() -> memberRepository.findRowsByGroup("G1"), groupG1);
+
+        assertUsesOneOf(plan, GROUP_ID, GROUP_TYPE_ID);
+    }
+
+    @Test
+    void shouldFindRowsByTypesAndGroupAndCourseThroughGroupTypeIndex() {
+        var plan = explain(() -> memberRepository.findRowsByTypesAndGroupAndCoursesId(
+                        List.of(MemberType.STUDENT, MemberType.TEACHER), "G1", courseId),
+                STUDENT, TEACHER, groupG1, courseId);
+
+        assertUsesOneOf(plan, GROUP_TYPE_ID, GROUP_ID, COURSE_MEMBER);
+    }
+
+    @Test
+    void shouldFindRowsByTypeAndGroupAndCourseThroughGroupTypeIndex() {
+        var plan = explain(() -> memberRepository.findRowsByTypeAndGroupAndCoursesId(
+                        MemberType.STUDENT, "G1", courseId),
+                STUDENT, groupG1, courseId);
+
+        assertUsesOneOf(plan, GROUP_TYPE_ID, GROUP_ID, COURSE_MEMBER);
+    }
+
+    @Test
+    void shouldFindRowsByTypeAndAgeAndCourseThroughTypeAgeIndex() {
+        var plan = explain(() -> memberRepository.findRowsByTypeAndAgeGreaterThanAndCoursesId(
+                        MemberType.STUDENT, 25, courseId),
+                STUDENT, 25, courseId);
+
+        assertUsesOneOf(plan, TYPE_AGE_ID, COURSE_MEMBER);
+    }
+
+    @Test
+    void shouldFindRowsByIdWithoutScanning() {
+        var plan = explain(() -> memberRepository.findRowsByIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+
+        assertThat(plan).doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void shouldFindCourseIdsByMemberIdWithoutScanning() {
+        var plan = explain(() -> memberRepository.findCourseIdsByMemberIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+
+        assertThat(plan).doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void shouldFindIdPageByTypeThroughTypeIndex() {
+        var plan = explain(() -> memberRepository.findIdsByType(MemberType.STUDENT, 0L, Limit.of(21)),
+                STUDENT, 0L, 0, 21);
+
+        assertUsesOneOf(plan, TYPE_ID, TYPE_AGE_ID);
+    }
+
+    @Test
+    void shouldFindIdPageByTypeAndCourseThroughEnrollmentIndex() {
+        var plan = explain(() -> memberRepository.findIdsByTypeAndCoursesId(
+                        MemberType.STUDENT, courseId, 0L, Limit.of(21)),
+                STUDENT, courseId, 0L, 0, 21);
+
+        assertUsesOneOf(plan, COURSE_MEMBER, TYPE_ID, TYPE_AGE_ID);
+    }
+
+    @Test
+    void shouldFindIdPageByGroupThroughGroupIndex() {
+        var plan = explain(() -> memberRepository.findIdsByGroup("G1", 0L, Limit.of(21)), groupG1, 0L, 0, 21);
+
+        assertUsesOneOf(plan, GROUP_ID, GROUP_TYPE_ID);
+    }
+
+    @Test
+    void shouldFindIdPageByTypeAndAgeAndCourseThroughTypeAgeIndex() {
+        var plan = explain(() -> memberRepository.findIdsByTypeAndAgeGreaterThanAndCoursesId(
+                        MemberType.STUDENT, 25, courseId, 0L, Limit.of(21)),
+                STUDENT, 25, courseId, 0L, 0, 21);
+
+        assertUsesOneOf(plan, TYPE_AGE_ID, COURSE_MEMBER);
+    }
+
+    @Test
+    void shouldCountByTypeInIdRangeThroughTypeIndex() {
+        var plan = explain(() -> memberRepository.countByTypeAndIdBetween(MemberType.STUDENT, 1L, 100L),
+                STUDENT, 1L, 100L);
+
+        assertUsesOneOf(plan, TYPE_ID, TYPE_AGE_ID);
+    }
+
+    /**
+     * Runs the query to capture its SQL, then explains that SQL with the given parameters.
+     *
+     * @param query      runs the repository query
+     * @param parameters the parameter values, in the order they appear in the generated SQL
+     * @return the plan
+     */
+    private String explain(Runnable query, Object... parameters) {
+        SqlCapture.STATEMENTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        String sql = SqlCapture.STATEMENTS.stream()
+                .filter(statement -> statement.regionMatches(true, 0, "select", 0, "select".length()))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No SELECT captured"));
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parameters of %s", sql)
+                .isEqualTo(parameters.length);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    private static void assertUsesOneOf(String plan, String... indexes) {
+        assertThat(plan).doesNotContain(TABLE_SCAN);
+        assertThat(plan.toUpperCase()).containsAnyOf(indexes);
+    }
+
+    /** Records every SQL statement Hibernate prepares, unchanged. */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.school.service;
 import com.school.dto.CourseDto;
 import com.school.entity.Course;
 import com.school.enums.CourseType;
+import com.school.exception.PreconditionFailedException;
 import com.school.exception.ResourceNotFoundException;
+import com.school.fixture.CourseFixture;
 import com.school.mapper.CourseMapper;
 import com.school.repository.CourseRepository;
 import org.junit.jupiter.api.Test;
@@ -11,12 +13,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +35,9 @@ class CourseServiceTest {
     @Mock
     private CourseMapper courseMapper;
 
+    @Mock
+    private TypeCountService typeCountService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -102,6 +111,39 @@ class CourseServiceTest {
         assertThat(result).containsExactly(dto1, dto2);
     }
 
+    @Test
+    void shouldGetCoursesPage() {
+        var entity1 = new Course();
+        var entity2 = new Course();
+        var dto1 = CourseDto.builder().id(1L).name("Math").type(CourseType.MAIN).build();
+
+        when(courseRepository.findByIdGreaterThanOrderById(0L, Limit.of(2)))
+                .thenReturn(List.of(entity1, entity2));
+        when(courseMapper.toCourseDto(entity1)).thenReturn(dto1);
+
+        var result = courseService.getCoursesPage(0L, 1);
+
+        assertThat(result.getItems()).containsExactly(dto1);
+        assertThat(result.getNextCursor()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldGetCoursesByIdsInRequestOrderReportingMissing() {
+        var math = CourseFixture.courseEntity(1L);
+        var art = CourseFixture.courseEntity(2L);
+        var mathDto = CourseDto.builder().id(1L).name("Math").type(CourseType.MAIN).build();
+        var artDto = CourseDto.builder().id(2L).name("Art").type(CourseType.SECONDARY).build();
+
+        when(courseRepository.findAllById(List.of(2L, 999L, 1L))).thenReturn(List.of(math, art));
+        when(courseMapper.toCourseDto(math)).thenReturn(mathDto);
+        when(courseMapper.toCourseDto(art)).thenReturn(artDto);
+
+        var result = courseService.getCoursesByIds(List.of(2L, 999L, 1L, 2L));
+
+        assertThat(result.getItems()).containsExactly(artDto, mathDto);
+        assertThat(result.getMissingIds()).containsExactly(999L);
+    }
+
     @Test
     void shouldUpdateCourse() {
         var entity = new Course();
@@ -118,14 +160,14 @@ class CourseServiceTest {
                 .build();
 
         when(courseRepository.findById(1L)).thenReturn(Optional.of(entity));
-        when(courseRepository.save(entity)).thenReturn(savedEntity);
+        when(courseRepository.saveAndFlush(entity)).thenReturn(savedEntity);
         when(courseMapper.toCourseDto(savedEntity)).thenReturn(expectedDto);
 
-        var result = courseService.updateCourse(1L, dto);
+        var result = courseService.updateCourse(1L, dto, null);
 
         assertThat(result).isEqualTo(expectedDto);
         verify(courseMapper).updateCourseEntity(dto, entity);
-        verify(courseRepository).save(entity);
+        verify(courseRepository).saveAndFlush(entity);
     }
 
     @Test
@@ -134,23 +176,60 @@ class CourseServiceTest {
 
         when(courseRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> courseService.updateCourse(999L, dto))
+        assertThatThrownBy(() -> courseService.updateCourse(999L, dto, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Course not found with id: 999");
     }
 
+    @Test
+    void shouldRejectUpdateBasedOnStaleVersion() {
+        var entity = CourseFixture.courseEntity(1L);
+        entity.setVersion(3L);
+        var dto = CourseFixture.courseDto("Art", CourseType.SECONDARY);
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(entity));
+
+        assertThatThrownBy(() -> courseService.updateCourse(1L, dto, 2L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("Course with id: 1 has version 3, not 2");
+        verify(courseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldMoveTypeCountWhenUpdatingCourseType() {
+        var entity = CourseFixture.courseEntity(1L);
+        entity.setType(CourseType.MAIN);
+        var dto = CourseFixture.courseDto("Art", CourseType.SECONDARY);
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(entity));
+        doAnswer(invocation -> {
+            entity.setType(CourseType.SECONDARY);
+            return null;
+        }).when(courseMapper).updateCourseEntity(dto, entity);
+        when(courseRepository.saveAndFlush(entity)).thenReturn(entity);
+
+        courseService.updateCourse(1L, dto, null);
+
+        verify(typeCountService).add(CourseType.MAIN, -1);
+        verify(typeCountService).add(CourseType.SECONDARY, 1);
+    }
+
     @Test
     void shouldDeleteCourse() {
-        when(courseRepository.existsById(1L)).thenReturn(true);
+        var entity = CourseFixture.courseEntity(1L);
+        entity.setType(CourseType.MAIN);
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(entity));
 
         courseService.deleteCourse(1L);
 
-        verify(courseRepository).deleteById(1L);
+        verify(courseRepository).delete(entity);
+        verify(typeCountService).add(CourseType.MAIN, -1);
     }
 
     @Test
     void shouldThrowWhenDeletingNonExistentCourse() {
-        when(courseRepository.existsById(999L)).thenReturn(false);
+        when(courseRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> courseService.deleteCourse(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -159,7 +238,7 @@ class CourseServiceTest {
 
     @Test
     void shouldCountCoursesByType() {
-        when(courseRepository.countByType(CourseType.MAIN)).thenReturn(3L);
+        when(typeCountService.countOf(CourseType.MAIN)).thenReturn(3L);
 
         var result = courseService.countCoursesByType(CourseType.MAIN);
 
@@ -1,22 +1,35 @@
 package com.school.service;
 
+import com.school.cache.GroupDictionary;
 import com.school.dto.MemberDto;
 import com.school.entity.Course;
+import com.school.entity.CourseTeacher;
 import com.school.entity.Member;
 import com.school.fixture.CourseFixture;
 import com.school.fixture.MemberFixture;
 import com.school.enums.MemberType;
 import com.school.exception.DuplicateTeacherException;
+import com.school.exception.PreconditionFailedException;
 import com.school.exception.ResourceNotFoundException;
+import com.school.index.EnrollmentIndex;
+import com.school.index.EnrollmentQuery;
 import com.school.mapper.MemberMapper;
 import com.school.repository.CourseRepository;
+import com.school.repository.CourseTeacherRepository;
+import com.school.repository.MemberCourseId;
 import com.school.repository.MemberRepository;
+import com.school.repository.MemberRow;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -25,7 +38,11 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,9 +55,24 @@ class MemberServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private CourseTeacherRepository courseTeacherRepository;
+
     @Mock
     private MemberMapper memberMapper;
 
+    @Mock
+    private TypeCountService typeCountService;
+
+    @Mock
+    private GroupDictionary groupDictionary;
+
+    @Mock
+    private EnrollmentIndex enrollmentIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private MemberService memberService;
 
@@ -59,6 +91,7 @@ class MemberServiceTest {
         var entity = new Member();
         var savedEntity = new Member();
         savedEntity.setId(1L);
+        savedEntity.setType(MemberType.STUDENT);
         var expectedDto = MemberDto.builder()
                 .id(1L)
                 .name("John")
@@ -77,8 +110,11 @@ class MemberServiceTest {
 
         assertThat(result).isEqualTo(expectedDto);
         assertThat(entity.getCourses()).containsExactly(course);
+        verify(groupDictionary).register("A1");
         verify(memberMapper).toMemberEntity(dto);
         verify(memberRepository).save(entity);
+        verify(typeCountService).add(MemberType.STUDENT, 1);
+        verify(enrollmentIndex).putAfterCommit(List.of(expectedDto));
     }
 
     @Test
@@ -148,6 +184,60 @@ class MemberServiceTest {
                 .hasMessageContaining("Courses not found with ids: [999]");
     }
 
+    @Test
+    void shouldCreateMembersInBulk() {
+        var dto1 = MemberFixture.memberDto("John", 20, "A1", MemberType.STUDENT, Set.of(1L));
+        var dto2 = MemberFixture.memberDto("Prof A", 45, "A1", MemberType.TEACHER, Set.of(1L));
+        var entity1 = new Member();
+        var entity2 = new Member();
+        var expected1 = MemberFixture.memberDto(1L, "John", MemberType.STUDENT, Set.of(1L));
+        var expected2 = MemberFixture.memberDto(2L, "Prof A", MemberType.TEACHER, Set.of(1L));
+
+        when(courseRepository.findExistingIds(Set.of(1L))).thenReturn(List.of(1L));
+        when(courseTeacherRepository.findTakenCourseIds(Set.of(1L), null)).thenReturn(List.of());
+        when(memberMapper.toMemberEntity(dto1)).thenReturn(entity1);
+        when(memberMapper.toMemberEntity(dto2)).thenReturn(entity2);
+        when(memberMapper.toMemberDto(entity1)).thenReturn(expected1);
+        when(memberMapper.toMemberDto(entity2)).thenReturn(expected2);
+
+        var result = memberService.createMembers(List.of(dto1, dto2));
+
+        assertThat(result).containsExactly(expected1, expected2);
+        verify(groupDictionary).register("A1");
+        verify(entityManager).persist(entity1);
+        verify(entityManager).persist(entity2);
+        verify(entityManager).persist(any(CourseTeacher.class));
+        verify(courseTeacherRepository).flush();
+        verify(memberRepository, never()).save(any());
+        verify(typeCountService).add(MemberType.STUDENT, 1L);
+        verify(typeCountService).add(MemberType.TEACHER, 1L);
+    }
+
+    @Test
+    void shouldThrowWhenBulkAssignsTwoTeachersToSameCourse() {
+        var dto1 = MemberFixture.memberDto("Prof A", 45, "A1", MemberType.TEACHER, Set.of(1L));
+        var dto2 = MemberFixture.memberDto("Prof B", 50, "A1", MemberType.TEACHER, Set.of(1L));
+
+        when(courseRepository.findExistingIds(Set.of(1L))).thenReturn(List.of(1L));
+
+        assertThatThrownBy(() -> memberService.createMembers(List.of(dto1, dto2)))
+                .isInstanceOf(DuplicateTeacherException.class)
+                .hasMessageContaining("A teacher is already assigned to course with id: 1");
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void shouldThrowWhenBulkReferencesNonExistentCourse() {
+        var dto = MemberFixture.memberDto("John", 20, "A1", MemberType.STUDENT, Set.of(1L, 999L));
+
+        when(courseRepository.findExistingIds(Set.of(1L, 999L))).thenReturn(List.of(1L));
+
+        assertThatThrownBy(() -> memberService.createMembers(List.of(dto)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Courses not found with ids: [999]");
+    }
+
     @Test
     void shouldGetMemberById() {
         var entity = new Member();
@@ -178,20 +268,106 @@ class MemberServiceTest {
     }
 
     @Test
-    void shouldGetMembersByType() {
-        var entity1 = new Member();
-        var entity2 = new Member();
-        var dto1 = MemberDto.builder().id(1L).name("John").type(MemberType.STUDENT).build();
-        var dto2 = MemberDto.builder().id(2L).name("Jane").type(MemberType.STUDENT).build();
-
-        when(memberRepository.findByType(MemberType.STUDENT))
-                .thenReturn(List.of(entity1, entity2));
-        when(memberMapper.toMemberDto(entity1)).thenReturn(dto1);
-        when(memberMapper.toMemberDto(entity2)).thenReturn(dto2);
+    void shouldGetMembersByTypeWithCourseIdsFromSecondQuery() {
+        when(memberRepository.findRowsByType(MemberType.STUDENT))
+                .thenReturn(List.of(
+                        memberRow(1L, "John", MemberType.STUDENT),
+                        memberRow(2L, "Jane", MemberType.STUDENT)));
+        when(memberRepository.findCourseIdsByMemberIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(
+                        new MemberCourseId(1L, 10L),
+                        new MemberCourseId(2L, 10L),
+                        new MemberCourseId(1L, 11L)));
 
         var result = memberService.getMembersByType(MemberType.STUDENT);
 
-        assertThat(result).containsExactly(dto1, dto2);
+        assertThat(result).extracting(MemberDto::getName).containsExactly("John", "Jane");
+        assertThat(result.get(0).getCourseIds()).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(result.get(1).getCourseIds()).containsExactly(10L);
+    }
+
+    @Test
+    void shouldStreamMembersByTypeLoadingCourseIdsPerBatch() {
+        var rows = new ArrayList<MemberRow>();
+        for (long id = 1; id <= 501; id++) {
+            rows.add(memberRow(id, "Student " + id, MemberType.STUDENT));
+        }
+        var firstBatchIds = rows.subList(0, 500).stream().map(MemberRow::id).toList();
+        var streamed = new ArrayList<MemberDto>();
+
+        when(memberRepository.streamRowsByType(MemberType.STUDENT)).thenReturn(rows.stream());
+        when(memberRepository.findCourseIdsByMemberIdIn(firstBatchIds))
+                .thenReturn(List.of(new MemberCourseId(1L, 10L)));
+        when(memberRepository.findCourseIdsByMemberIdIn(List.of(501L)))
+                .thenReturn(List.of(new MemberCourseId(501L, 11L)));
+
+        memberService.streamMembersByType(MemberType.STUDENT, streamed::add);
+
+        assertThat(streamed).hasSize(501);
+        assertThat(streamed.get(0).getCourseIds()).containsExactly(10L);
+        assertThat(streamed.get(1).getCourseIds()).isEmpty();
+        assertThat(streamed.get(500).getCourseIds()).containsExactly(11L);
+        verify(memberRepository, times(2)).findCourseIdsByMemberIdIn(any());
+    }
+
+    @Test
+    void shouldGetMembersByTypePageWithNextCursor() {
+        when(memberRepository.findIdsByType(MemberType.STUDENT, 0L, Limit.of(3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(memberRepository.findRowsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(
+                        memberRow(1L, "John", MemberType.STUDENT),
+                        memberRow(2L, "Jane", MemberType.STUDENT)));
+
+        var result = memberService.getMembersByTypePage(MemberType.STUDENT, 0L, 2);
+
+        assertThat(result.getItems()).extracting(MemberDto::getName).containsExactly("John", "Jane");
+        assertThat(result.getNextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldGetLastMembersByTypePageWithoutNextCursor() {
+        when(memberRepository.findIdsByType(MemberType.STUDENT, 5L, Limit.of(3)))
+                .thenReturn(List.of());
+
+        var result = memberService.getMembersByTypePage(MemberType.STUDENT, 5L, 2);
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verify(memberRepository, never()).findRowsByIdIn(any());
+    }
+
+    @Test
+    void shouldGetMembersByIdsInRequestOrderWithCourseIdsFromSecondQuery() {
+        when(memberRepository.findRowsByIdIn(List.of(2L, 999L, 1L)))
+                .thenReturn(List.of(
+                        memberRow(1L, "John", MemberType.STUDENT),
+                        memberRow(2L, "Jane", MemberType.STUDENT)));
+        when(memberRepository.findCourseIdsByMemberIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new MemberCourseId(2L, 10L)));
+
+        var result = memberService.getMembersByIds(List.of(2L, 999L, 1L, 2L));
+
+        assertThat(result.getItems()).extracting(MemberDto::getName).containsExactly("Jane", "John");
+        assertThat(result.getItems().get(0).getCourseIds()).containsExactly(10L);
+        assertThat(result.getItems().get(1).getCourseIds()).isEmpty();
+        assertThat(result.getMissingIds()).containsExactly(999L);
+    }
+
+    @Test
+    void shouldFindEnrollmentQueryPageFromIndexIds() {
+        var query = new EnrollmentQuery(Set.of(10L), null, Set.of(11L), MemberType.STUDENT, "A1");
+
+        when(enrollmentIndex.findIds(query, 0L, 3)).thenReturn(List.of(1L, 2L, 3L));
+        when(memberRepository.findRowsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(
+                        memberRow(1L, "John", MemberType.STUDENT),
+                        memberRow(2L, "Jane", MemberType.STUDENT)));
+
+        var result = memberService.findByEnrollmentQueryPage(query, 0L, 2);
+
+        assertThat(result.getItems()).extracting(MemberDto::getName).containsExactly("John", "Jane");
+        assertThat(result.getNextCursor()).isEqualTo(2L);
     }
 
     @Test
@@ -220,10 +396,10 @@ class MemberServiceTest {
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
         when(courseRepository.findAllById(Set.of(courseId))).thenReturn(List.of(course));
-        when(memberRepository.save(entity)).thenReturn(savedEntity);
+        when(memberRepository.saveAndFlush(entity)).thenReturn(savedEntity);
         when(memberMapper.toMemberDto(savedEntity)).thenReturn(expectedDto);
 
-        var result = memberService.updateMember(1L, dto);
+        var result = memberService.updateMember(1L, dto, null);
 
         assertThat(result).isEqualTo(expectedDto);
         verify(memberMapper).updateMemberEntity(dto, entity);
@@ -247,7 +423,7 @@ class MemberServiceTest {
         when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
         when(courseRepository.findAllById(Set.of(1L, 999L))).thenReturn(List.of(course));
 
-        assertThatThrownBy(() -> memberService.updateMember(1L, dto))
+        assertThatThrownBy(() -> memberService.updateMember(1L, dto, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Courses not found with ids: [999]");
     }
@@ -260,32 +436,81 @@ class MemberServiceTest {
 
         when(memberRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> memberService.updateMember(999L, dto))
+        assertThatThrownBy(() -> memberService.updateMember(999L, dto, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Member not found with id: 999");
     }
 
+    @Test
+    void shouldRejectUpdateBasedOnStaleVersion() {
+        var entity = MemberFixture.memberEntity(1L);
+        entity.setVersion(3L);
+        var dto = MemberFixture.memberDto("John", 30, "A1", MemberType.STUDENT, Set.of());
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
+
+        assertThatThrownBy(() -> memberService.updateMember(1L, dto, 2L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("Member with id: 1 has version 3, not 2");
+        verify(memberRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldGetMemberVersionWithoutLoadingMember() {
+        when(memberRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertThat(memberService.getMemberVersion(1L)).isEqualTo(4L);
+        verify(memberRepository, never()).findWithCoursesById(any());
+    }
+
+    @Test
+    void shouldMoveTypeCountWhenUpdatingMemberType() {
+        var entity = MemberFixture.memberEntity(1L);
+        entity.setType(MemberType.STUDENT);
+        var dto = MemberFixture.memberDto("John", 30, "A1", MemberType.TEACHER, Set.of());
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
+        doAnswer(invocation -> {
+            entity.setType(MemberType.TEACHER);
+            return null;
+        }).when(memberMapper).updateMemberEntity(dto, entity);
+        when(memberRepository.saveAndFlush(entity)).thenReturn(entity);
+        when(memberMapper.toMemberDto(entity)).thenReturn(dto);
+
+        memberService.updateMember(1L, dto, null);
+
+        verify(typeCountService).add(MemberType.STUDENT, -1);
+        verify(typeCountService).add(MemberType.TEACHER, 1);
+    }
+
     @Test
     void shouldDeleteMember() {
-        when(memberRepository.existsById(1L)).thenReturn(true);
+        var entity = MemberFixture.memberEntity(1L);
+        entity.setType(MemberType.STUDENT);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
 
         memberService.deleteMember(1L);
 
-        verify(memberRepository).deleteById(1L);
+        verify(memberRepository).delete(entity);
+        verify(typeCountService).add(MemberType.STUDENT, -1);
+        verify(enrollmentIndex).removeAfterCommit(1L);
     }
 
     @Test
     void shouldThrowWhenDeletingNonExistentMember() {
-        when(memberRepository.existsById(999L)).thenReturn(false);
+        when(memberRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> memberService.deleteMember(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Member not found with id: 999");
+
+        verify(typeCountService, never()).add(any(MemberType.class), anyLong());
     }
 
     @Test
     void shouldCountMembersByType() {
-        when(memberRepository.countByType(MemberType.STUDENT)).thenReturn(5L);
+        when(typeCountService.countOf(MemberType.STUDENT)).thenReturn(5L);
 
         var result = memberService.countMembersByType(MemberType.STUDENT);
 
@@ -294,18 +519,20 @@ class MemberServiceTest {
 
     @Test
     void shouldFindMembersByTypeAndCourseId() {
-        var entity = new Member();
-        var expectedDto = MemberDto.builder().id(1L).name("John").type(MemberType.STUDENT).build();
-
         when(courseRepository.existsById(1L)).thenReturn(true);
-        when(memberRepository.findByTypeAndCoursesId(MemberType.STUDENT, 1L))
-                .thenReturn(List.of(entity));
-        when(memberMapper.toMemberDto(entity)).thenReturn(expectedDto);
+        when(memberRepository.findRowsByTypeAndCoursesId(MemberType.STUDENT, 1L))
+                .thenReturn(List.of(memberRow(1L, "John", MemberType.STUDENT)));
+        when(memberRepository.findCourseIdsByMemberIdIn(List.of(1L)))
+                .thenReturn(List.of(new MemberCourseId(1L, 1L), new MemberCourseId(1L, 2L)));
 
         var result = memberService.findMembersByTypeAndCourseId(
                 MemberType.STUDENT, 1L);
 
-        assertThat(result).containsExactly(expectedDto);
+        assertThat(result).singleElement().satisfies(member -> {
+            assertThat(member.getId()).isEqualTo(1L);
+            assertThat(member.getName()).isEqualTo("John");
+            assertThat(member.getCourseIds()).containsExactlyInAnyOrder(1L, 2L);
+        });
     }
 
     @Test
@@ -320,58 +547,44 @@ class MemberServiceTest {
 
     @Test
     void shouldFindMembersByGroup() {
-        var entity = new Member();
-        var expectedDto = MemberDto.builder().id(1L).name("John").group("A1").build();
-
-        when(memberRepository.findByGroup("A1")).thenReturn(List.of(entity));
-        when(memberMapper.toMemberDto(entity)).thenReturn(expectedDto);
+        when(memberRepository.findRowsByGroup("A1"))
+                .thenReturn(List.of(memberRow(1L, "John", MemberType.STUDENT)));
 
         var result = memberService.findMembersByGroup("A1");
 
-        assertThat(result).containsExactly(expectedDto);
+        assertThat(result).singleElement().satisfies(member -> {
+            assertThat(member.getGroup()).isEqualTo("A1");
+            assertThat(member.getCourseIds()).isEmpty();
+        });
     }
 
     @Test
     void shouldFindMembersByTypeAndGroupAndCourseId() {
-        var entity = new Member();
-        var expectedDto = MemberDto.builder()
-                .id(1L).name("John").type(MemberType.STUDENT)
-                .group("A1").build();
-
-        when(memberRepository.findByTypeAndGroupAndCoursesId(
+        when(memberRepository.findRowsByTypeAndGroupAndCoursesId(
                 MemberType.STUDENT, "A1", 1L))
-                .thenReturn(List.of(entity));
-        when(memberMapper.toMemberDto(entity)).thenReturn(expectedDto);
+                .thenReturn(List.of(memberRow(1L, "John", MemberType.STUDENT)));
 
         var result = memberService.findMembersByTypeAndGroupAndCourseId(
                 MemberType.STUDENT, "A1", 1L);
 
-        assertThat(result).containsExactly(expectedDto);
+        assertThat(result).extracting(MemberDto::getName).containsExactly("John");
     }
 
     @Test
     void shouldFindMembersByGroupAndCourseId() {
-        var studentEntity = new Member();
-        var teacherEntity = new Member();
-        var studentDto = MemberDto.builder()
-                .id(1L).name("John").type(MemberType.STUDENT)
-                .group("A1").build();
-        var teacherDto = MemberDto.builder()
-                .id(2L).name("Prof Smith").type(MemberType.TEACHER)
-                .group("A1").build();
-
         when(courseRepository.existsById(1L)).thenReturn(true);
-        when(memberRepository.findByTypesAndGroupAndCoursesId(
+        when(memberRepository.findRowsByTypesAndGroupAndCoursesId(
                 List.of(MemberType.STUDENT, MemberType.TEACHER), "A1", 1L))
-                .thenReturn(List.of(studentEntity, teacherEntity));
-        when(memberMapper.toMemberDto(studentEntity)).thenReturn(studentDto);
-        when(memberMapper.toMemberDto(teacherEntity)).thenReturn(teacherDto);
+                .thenReturn(List.of(
+                        memberRow(1L, "John", MemberType.STUDENT),
+                        memberRow(2L, "Prof Smith", MemberType.TEACHER)));
 
         var result = memberService.findMembersByGroupAndCourseId("A1", 1L);
 
         assertThat(result.getGroup()).isEqualTo("A1");
         assertThat(result.getCourseId()).isEqualTo(1L);
-        assertThat(result.getMembers()).containsExactly(studentDto, teacherDto);
+        assertThat(result.getMembers()).extracting(MemberDto::getType)
+                .containsExactly(MemberType.STUDENT, MemberType.TEACHER);
     }
 
     @Test
@@ -385,22 +598,16 @@ class MemberServiceTest {
 
     @Test
     void shouldFindMembersByTypeAndAgeGreaterThanAndCourseId() {
-        var entity = new Member();
-        var expectedDto = MemberDto.builder()
-                .id(1L).name("Jane").age(22)
-                .type(MemberType.STUDENT).build();
-
         when(courseRepository.existsById(1L)).thenReturn(true);
-        when(memberRepository.findByTypeAndAgeGreaterThanAndCoursesId(
+        when(memberRepository.findRowsByTypeAndAgeGreaterThanAndCoursesId(
                 MemberType.STUDENT, 20, 1L))
-                .thenReturn(List.of(entity));
-        when(memberMapper.toMemberDto(entity)).thenReturn(expectedDto);
+                .thenReturn(List.of(memberRow(1L, "Jane", MemberType.STUDENT)));
 
         var result = memberService
                 .findMembersByTypeAndAgeGreaterThanAndCourseId(
                         MemberType.STUDENT, 20, 1L);
 
-        assertThat(result).containsExactly(expectedDto);
+        assertThat(result).extracting(MemberDto::getName).containsExactly("Jane");
     }
 
     @Test
@@ -419,8 +626,8 @@ class MemberServiceTest {
         var dto = MemberFixture.memberDto("Prof B", 40, "A1",
                 MemberType.TEACHER, Set.of(1L));
 
-        when(memberRepository.courseHasAnotherTeacher(1L, null))
-                .thenReturn(true);
+        when(courseTeacherRepository.findTakenCourseIds(Set.of(1L), null))
+                .thenReturn(List.of(1L));
 
         assertThatThrownBy(() -> memberService.createMember(dto))
                 .isInstanceOf(DuplicateTeacherException.class)
@@ -460,14 +667,38 @@ class MemberServiceTest {
                 MemberType.TEACHER, Set.of(1L));
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
-        when(memberRepository.courseHasAnotherTeacher(1L, 1L)).thenReturn(false);
+        when(courseTeacherRepository.findTakenCourseIds(Set.of(1L), 1L)).thenReturn(List.of());
         when(courseRepository.findAllById(Set.of(1L))).thenReturn(List.of(course));
-        when(memberRepository.save(entity)).thenReturn(savedEntity);
+        when(memberRepository.saveAndFlush(entity)).thenReturn(savedEntity);
         when(memberMapper.toMemberDto(savedEntity)).thenReturn(expectedDto);
 
-        var result = memberService.updateMember(1L, dto);
+        var result = memberService.updateMember(1L, dto, null);
 
         assertThat(result).isEqualTo(expectedDto);
+        verify(entityManager).persist(any(CourseTeacher.class));
+        verify(courseTeacherRepository).flush();
+    }
+
+    @Test
+    void shouldThrowWhenConcurrentTeacherAssignmentViolatesPrimaryKey() {
+        var course = CourseFixture.courseEntity(1L);
+        var dto = MemberFixture.memberDto("Prof B", 40, "A1",
+                MemberType.TEACHER, Set.of(1L));
+        var entity = new Member();
+
+        when(courseTeacherRepository.findTakenCourseIds(Set.of(1L), null)).thenReturn(List.of());
+        when(memberMapper.toMemberEntity(dto)).thenReturn(entity);
+        when(courseRepository.findAllById(Set.of(1L))).thenReturn(List.of(course));
+        when(memberRepository.save(entity)).thenReturn(entity);
+        doThrow(new DataIntegrityViolationException("duplicate key",
+                new SQLException("Unique index or primary key violation", "23505")))
+                .when(courseTeacherRepository).flush();
+
+        assertThatThrownBy(() -> memberService.createMember(dto))
+                .isInstanceOf(DuplicateTeacherException.class)
+                .hasMessageContaining("A teacher is already assigned to one of the courses with ids: [1]");
+
+        verify(typeCountService, never()).add(any(MemberType.class), anyLong());
     }
 
     @Test
@@ -477,12 +708,16 @@ class MemberServiceTest {
                 MemberType.TEACHER, Set.of(2L));
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(entity));
-        when(memberRepository.courseHasAnotherTeacher(2L, 1L)).thenReturn(true);
+        when(courseTeacherRepository.findTakenCourseIds(Set.of(2L), 1L)).thenReturn(List.of(2L));
 
-        assertThatThrownBy(() -> memberService.updateMember(1L, dto))
+        assertThatThrownBy(() -> memberService.updateMember(1L, dto, null))
                 .isInstanceOf(DuplicateTeacherException.class)
                 .hasMessageContaining("A teacher is already assigned to course with id: 2");
 
         verify(memberRepository, never()).save(any());
     }
+
+    private static MemberRow memberRow(Long id, String name, MemberType type) {
+        return new MemberRow(id, name, 22, "A1", type);
+    }
 }
@@ -0,0 +1,63 @@
+package com.school.service;
+
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.CourseEnrollmentCount;
+import com.school.repository.CourseRepository;
+import com.school.repository.GroupAgeCount;
+import com.school.repository.MemberRepository;
+import com.school.repository.MemberTypeGroupCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private TypeCountService typeCountService;
+
+    @InjectMocks
+    private StatsService statsService;
+
+    @Test
+    void shouldAssembleStatsFromGroupedCounts() {
+        when(memberRepository.countByTypeAndGroup()).thenReturn(List.of(
+                new MemberTypeGroupCount(MemberType.STUDENT, "B1", 1L),
+                new MemberTypeGroupCount(MemberType.STUDENT, "A1", 3L)));
+        when(typeCountService.countOf(CourseType.MAIN)).thenReturn(2L);
+        when(typeCountService.countOf(CourseType.SECONDARY)).thenReturn(0L);
+        when(courseRepository.countEnrollmentsByCourse()).thenReturn(List.of(
+                new CourseEnrollmentCount(1L, 4L),
+                new CourseEnrollmentCount(2L, 0L)));
+        when(memberRepository.countByGroupAndAgeBucket()).thenReturn(List.of(
+                new GroupAgeCount("A1", 20, 3L),
+                new GroupAgeCount("A1", 10, 1L)));
+
+        var result = statsService.getStats();
+
+        assertThat(result.getMembersByTypeAndGroup().get(MemberType.STUDENT))
+                .containsExactly(Map.entry("A1", 3L), Map.entry("B1", 1L));
+        assertThat(result.getMembersByTypeAndGroup().get(MemberType.TEACHER)).isEmpty();
+        assertThat(result.getCoursesByType())
+                .containsExactly(Map.entry(CourseType.MAIN, 2L), Map.entry(CourseType.SECONDARY, 0L));
+        assertThat(result.getEnrollmentsByCourse()).containsExactly(Map.entry(1L, 4L), Map.entry(2L, 0L));
+        assertThat(result.getAgeBucketsByGroup().get("A1"))
+                .containsExactly(Map.entry(10, 1L), Map.entry(20, 3L));
+        assertThat(result.getAgeBucketWidth()).isEqualTo(MemberRepository.AGE_BUCKET_WIDTH);
+    }
+}
@@ -0,0 +1,91 @@
+package com.school.service;
+
+import com.school.enums.CourseType;
+import com.school.enums.MemberType;
+import com.school.repository.CourseRepository;
+import com.school.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TypeCountReconcilerTest {
+
+    private static final long CHUNK_SIZE = 10;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private TypeCountService typeCountService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TypeCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new TypeCountReconciler(
+                memberRepository, courseRepository, typeCountService, meterRegistry, CHUNK_SIZE);
+        lenient().when(courseRepository.findMaxId()).thenReturn(null);
+        lenient().when(typeCountService.countOf(any(CourseType.class))).thenReturn(0L);
+        lenient().when(typeCountService.countOf(MemberType.TEACHER)).thenReturn(0L);
+        lenient().when(memberRepository.countByTypeAndIdBetween(eq(MemberType.TEACHER), anyLong(), anyLong()))
+                .thenReturn(0L);
+    }
+
+    @Test
+    void shouldRecountInChunksAndReportNoDriftWhenCountsMatch() {
+        when(memberRepository.findMaxId()).thenReturn(25L);
+        when(memberRepository.countByTypeAndIdBetween(eq(MemberType.STUDENT), anyLong(), anyLong())).thenReturn(4L);
+        when(memberRepository.countByTypeAndIdBetween(eq(MemberType.TEACHER), anyLong(), anyLong())).thenReturn(1L);
+        when(typeCountService.countOf(MemberType.STUDENT)).thenReturn(12L);
+        when(typeCountService.countOf(MemberType.TEACHER)).thenReturn(3L);
+
+        reconciler.reconcile();
+
+        verify(memberRepository).countByTypeAndIdBetween(MemberType.STUDENT, 0L, 9L);
+        verify(memberRepository).countByTypeAndIdBetween(MemberType.STUDENT, 10L, 19L);
+        verify(memberRepository).countByTypeAndIdBetween(MemberType.STUDENT, 20L, 29L);
+        assertThat(reconciler.driftOf("members:STUDENT")).isZero();
+        assertThat(reconciler.driftOf("members:TEACHER")).isZero();
+    }
+
+    @Test
+    void shouldReportDrift() {
+        when(memberRepository.findMaxId()).thenReturn(5L);
+        when(memberRepository.countByTypeAndIdBetween(eq(MemberType.STUDENT), anyLong(), anyLong())).thenReturn(4L);
+        when(typeCountService.countOf(MemberType.STUDENT)).thenReturn(6L);
+
+        reconciler.reconcile();
+
+        assertThat(reconciler.driftOf("members:STUDENT")).isEqualTo(-2);
+        assertThat(meterRegistry.get("type.counts.drift").tag("count", "members:STUDENT").gauge().value())
+                .isEqualTo(-2.0);
+    }
+
+    @Test
+    void shouldSkipCountThatChangesDuringRecount() {
+        when(memberRepository.findMaxId()).thenReturn(5L);
+        when(memberRepository.countByTypeAndIdBetween(eq(MemberType.STUDENT), anyLong(), anyLong())).thenReturn(4L);
+        when(typeCountService.countOf(MemberType.STUDENT)).thenReturn(6L, 4L);
+
+        reconciler.reconcile();
+
+        assertThat(reconciler.driftOf("members:STUDENT")).isZero();
+    }
+}
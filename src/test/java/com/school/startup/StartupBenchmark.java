@@ -0,0 +1,125 @@
+package com.school.startup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures time to first successful request: from launching the application's JVM until
+ * {@code GET /api/courses} first answers 200.
+ * <p>
+ * The thin jar built by the {@code fast-start} profile is started in three modes: plain JIT, with
+ * Spring AOT initialization ({@code -Dspring.aot.enabled=true}), and with AOT plus an AppCDS archive
+ * recorded by a training run that exits once the context has refreshed. The modes take turns in
+ * every round, so drift in machine load affects all of them alike. Min, median and max per mode are
+ * printed.
+ * <p>
+ * Run with {@code mvn verify -Pfast-start}; {@code startup.runs} sets the number of rounds (default 5).
+ */
+public final class StartupBenchmark {
+
+    private static final String AOT = "-Dspring.aot.enabled=true";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar")).toAbsolutePath();
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path archive = jar.resolveSibling("app.jsa");
+        train(jar, archive);
+
+        var modes = new LinkedHashMap<String, List<String>>();
+        modes.put("jit", List.of());
+        modes.put("aot", List.of(AOT));
+        modes.put("aot+cds", List.of(AOT, "-XX:SharedArchiveFile=" + archive));
+
+        var millis = new LinkedHashMap<String, long[]>();
+        modes.keySet().forEach(mode -> millis.put(mode, new long[runs]));
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                millis.get(mode.getKey())[run] = timeToFirstRequest(jar, mode.getValue());
+            }
+        }
+        millis.forEach((mode, times) -> {
+            Arrays.sort(times);
+            System.out.printf("%-8s min %5d ms  median %5d ms  max %5d ms%n",
+                    mode, times[0], times[times.length / 2], times[times.length - 1]);
+        });
+    }
+
+    /** Records the classes loaded up to a refreshed context into a dynamic AppCDS archive. */
+    private static void train(Path jar, Path archive) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        var command = java(List.of("-XX:ArchiveClassesAtExit=" + archive, AOT, "-Dspring.context.exit=onRefresh"), jar);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || Boolean.FALSE.equals(Files.exists(archive))) {
+            throw new IllegalStateException("Training run exited with " + exitCode + " and wrote no " + archive);
+        }
+    }
+
+    private static long timeToFirstRequest(Path jar, List<String> flags) throws IOException, InterruptedException {
+        int port = freePort();
+        var command = java(flags, jar);
+        command.add("--server.port=" + port);
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (var http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (Boolean.FALSE.equals(process.isAlive())) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException("No successful response from " + request.uri() + " within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> java(List<String> flags, Path jar) {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(flags);
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}